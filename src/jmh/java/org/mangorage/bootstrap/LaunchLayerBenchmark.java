@@ -0,0 +1,84 @@
+package org.mangorage.bootstrap;
+
+import org.mangorage.bootstrap.benchmark.SyntheticJars;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.logging.Logger;
+
+/**
+ * {@code Bootstrap.createLaunchModuleLayer} over a launch directory of 64 modules, with the module index
+ * deleted before every call ({@code COLD}) or left from the previous one ({@code WARM}).
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.SingleShotTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Fork(3)
+@Warmup(iterations = 10)
+@Measurement(iterations = 20)
+public class LaunchLayerBenchmark {
+
+    private static final MethodHandle CREATE_LAUNCH_MODULE_LAYER;
+
+    static {
+        try {
+            CREATE_LAUNCH_MODULE_LAYER = MethodHandles.privateLookupIn(Bootstrap.class, MethodHandles.lookup()).findStatic(
+                    Bootstrap.class, "createLaunchModuleLayer",
+                    MethodType.methodType(ModuleLayer.class, ModuleLayer.class, Path.class, List.class, Path.class)
+            );
+        } catch (ReflectiveOperationException e) {
+            throw new ExceptionInInitializerError(e);
+        }
+    }
+
+    @Param({"COLD", "WARM"})
+    public String index;
+
+    private Path directory;
+    private Path launchPath;
+    private Path cachePath;
+
+    @Setup(Level.Trial)
+    public void createJars() throws Throwable {
+        Logger.getLogger("").setLevel(java.util.logging.Level.WARNING);
+
+        directory = Files.createTempDirectory("launch-layer-benchmark");
+        SyntheticJars.create(directory, 63, 20);
+        launchPath = directory.resolve("jars");
+        cachePath = directory.resolve("cache");
+        createLaunchModuleLayer();
+    }
+
+    @TearDown(Level.Trial)
+    public void deleteJars() {
+        SyntheticJars.delete(directory);
+    }
+
+    @Setup(Level.Invocation)
+    public void prepareIndex() throws Exception {
+        if (index.equals("COLD")) Files.deleteIfExists(cachePath.resolve("module-index.bin"));
+    }
+
+    @Benchmark
+    public ModuleLayer createLaunchModuleLayer() throws Throwable {
+        return (ModuleLayer) CREATE_LAUNCH_MODULE_LAYER.invokeExact(ModuleLayer.boot(), launchPath, List.of(), cachePath);
+    }
+}
@@ -0,0 +1,88 @@
+package org.mangorage.bootstrap;
+
+import org.mangorage.bootstrap.api.launch.ILaunchTarget;
+import org.mangorage.bootstrap.benchmark.SyntheticJars;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.lang.module.Configuration;
+import java.lang.module.ModuleFinder;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Supplier;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+/**
+ * {@code Bootstrap.discoverLaunchTargets} over a layer of launch target providers, half of which declare their id
+ * with {@link org.mangorage.bootstrap.api.launch.LaunchTargetId} and so aren't instantiated.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Fork(1)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+public class LaunchTargetDiscoveryBenchmark {
+
+    private static final MethodHandle DISCOVER_LAUNCH_TARGETS;
+
+    static {
+        try {
+            DISCOVER_LAUNCH_TARGETS = MethodHandles.privateLookupIn(Bootstrap.class, MethodHandles.lookup()).findStatic(
+                    Bootstrap.class, "discoverLaunchTargets", MethodType.methodType(Map.class, ModuleLayer.class)
+            );
+        } catch (ReflectiveOperationException e) {
+            throw new ExceptionInInitializerError(e);
+        }
+    }
+
+    @Param({"8", "64"})
+    public int targets;
+
+    private Path directory;
+    private ModuleLayer layer;
+
+    @Setup
+    public void defineLayer() throws Exception {
+        Logger.getLogger("").setLevel(Level.WARNING);
+
+        directory = Files.createTempDirectory("launch-target-benchmark");
+        final ModuleFinder finder = ModuleFinder.of(SyntheticJars.createLaunchTargets(directory, targets).toArray(Path[]::new));
+        final Set<String> roots = new HashSet<>();
+        finder.findAll().forEach(reference -> roots.add(reference.descriptor().name()));
+
+        final ModuleLayer boot = ModuleLayer.boot();
+        final Configuration configuration = boot.configuration().resolve(finder, ModuleFinder.of(), roots);
+        layer = ModuleLayer.defineModulesWithOneLoader(configuration, List.of(boot), ClassLoader.getSystemClassLoader()).layer();
+    }
+
+    @TearDown
+    public void deleteJars() {
+        SyntheticJars.delete(directory);
+    }
+
+    @Benchmark
+    @SuppressWarnings("unchecked")
+    public Map<String, Supplier<ILaunchTarget>> discoverLaunchTargets() throws Throwable {
+        return (Map<String, Supplier<ILaunchTarget>>) DISCOVER_LAUNCH_TARGETS.invokeExact(layer);
+    }
+}
@@ -0,0 +1,109 @@
+package org.mangorage.bootstrap.benchmark;
+
+import org.mangorage.bootstrap.api.logging.AbstractLoggerProvider;
+import org.mangorage.bootstrap.api.logging.IMangoLogger;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * {@link AbstractLoggerProvider#getLogger(String)} hammered by 64 threads.
+ * <p>
+ * {@code hit} looks up a fixed set of per-guild names, {@code churn} keeps asking for names never seen before.
+ * {@code LEGACY} is the old lock-on-name check-then-put cache, kept here as the baseline.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Threads(64)
+@Fork(1)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+public class LoggerCacheBenchmark {
+
+    private static final int NAMES = 1024;
+
+    @Param({"LEGACY", "STRONG", "WEAK"})
+    public String cache;
+
+    private final String[] names = new String[NAMES];
+    private final AtomicLong unique = new AtomicLong();
+    private AbstractLoggerProvider provider;
+
+    @Setup
+    public void setup() {
+        for (int i = 0; i < NAMES; i++) {
+            names[i] = "guild." + i + ".channel." + (i * 31);
+        }
+
+        provider = cache.equals("LEGACY")
+                ? new LegacyProvider()
+                : new NoopProvider(AbstractLoggerProvider.CacheMode.valueOf(cache));
+
+        for (String name : names) {
+            provider.getLogger(name);
+        }
+    }
+
+    @Benchmark
+    public IMangoLogger hit() {
+        return provider.getLogger(names[ThreadLocalRandom.current().nextInt(NAMES)]);
+    }
+
+    @Benchmark
+    public IMangoLogger churn() {
+        return provider.getLogger("guild." + unique.incrementAndGet());
+    }
+
+    static final class NoopProvider extends AbstractLoggerProvider {
+        NoopProvider(CacheMode cacheMode) {
+            super("benchmark", cacheMode);
+        }
+
+        @Override
+        protected IMangoLogger createLogger(String name) {
+            return new NamedLogger(name);
+        }
+    }
+
+    static final class LegacyProvider extends AbstractLoggerProvider {
+        private final String lock = "benchmark";
+        private final Map<String, IMangoLogger> loggers = new ConcurrentHashMap<>();
+
+        LegacyProvider() {
+            super("legacy");
+        }
+
+        @Override
+        protected IMangoLogger createLogger(String name) {
+            return new NamedLogger(name);
+        }
+
+        @Override
+        public IMangoLogger getLogger(String name) {
+            synchronized (lock) {
+                if (!loggers.containsKey(name)) {
+                    final IMangoLogger logger = createLogger(name);
+                    loggers.put(name, logger);
+                    return logger;
+                }
+            }
+            return loggers.get(name);
+        }
+    }
+}
@@ -0,0 +1,92 @@
+package org.mangorage.bootstrap.benchmark;
+
+import org.mangorage.bootstrap.internal.module.ModuleIndex;
+import org.mangorage.bootstrap.internal.util.Util;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.io.IOException;
+import java.lang.module.ModuleFinder;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+import java.util.stream.Collectors;
+
+/**
+ * Naming every jar of a launch directory.
+ * <p>
+ * {@code inferNames} is {@link Util#getModuleNames(Path)}, {@code indexedNames} the parallel scan served from a
+ * module index written in setup, and {@code moduleFinder} the plain {@link ModuleFinder} it used to be.
+ * {@code AUTOMATIC} jars are named by manifest or file name, {@code EXPLICIT} ones by their module-info.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Fork(1)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+public class ModuleNamesBenchmark {
+
+    @Param({"64", "256"})
+    public int jars;
+
+    @Param({"AUTOMATIC", "EXPLICIT"})
+    public String layout;
+
+    private Path directory;
+    private Path folder;
+    private Path indexFile;
+
+    @Setup
+    public void createJars() throws IOException {
+        Logger.getLogger("").setLevel(Level.WARNING);
+
+        directory = Files.createTempDirectory("module-names-benchmark");
+        folder = directory.resolve("jars");
+        if (layout.equals("AUTOMATIC")) {
+            SyntheticJars.createAutomatic(folder, jars, 40);
+        } else {
+            SyntheticJars.create(directory, jars - 1, 10);
+        }
+
+        indexFile = directory.resolve("module-index.bin");
+        final ModuleIndex index = ModuleIndex.load(indexFile);
+        Util.getModuleNames(folder, index);
+        index.save();
+    }
+
+    @TearDown
+    public void deleteJars() {
+        SyntheticJars.delete(directory);
+    }
+
+    @Benchmark
+    public Set<String> inferNames() {
+        return Util.getModuleNames(folder);
+    }
+
+    @Benchmark
+    public Set<String> indexedNames() {
+        return Util.getModuleNames(folder, ModuleIndex.load(indexFile));
+    }
+
+    @Benchmark
+    public Set<String> moduleFinder() {
+        return ModuleFinder.of(folder).findAll().stream()
+                .map(reference -> reference.descriptor().name())
+                .collect(Collectors.toSet());
+    }
+}
@@ -0,0 +1,27 @@
+package org.mangorage.bootstrap.benchmark;
+
+import org.mangorage.bootstrap.internal.logger.AbstractMangoLogger;
+import org.mangorage.bootstrap.internal.logger.LogLevel;
+
+/**
+ * Logger which drops everything, so benchmarks measure the code around it.
+ */
+final class NamedLogger extends AbstractMangoLogger {
+    NamedLogger(String name) {
+        super(name);
+    }
+
+    @Override
+    protected boolean isEnabled(LogLevel level) {
+        return false;
+    }
+
+    @Override
+    protected void log(LogLevel level, String message, Throwable throwable) {
+    }
+
+    @Override
+    public <T> T unwrap(Class<T> loggerClass) {
+        return null;
+    }
+}
@@ -0,0 +1,203 @@
+package org.mangorage.bootstrap.benchmark;
+
+import javax.tools.JavaCompiler;
+import javax.tools.ToolProvider;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.jar.Attributes;
+import java.util.jar.JarEntry;
+import java.util.jar.JarOutputStream;
+import java.util.jar.Manifest;
+import java.util.stream.Stream;
+
+/**
+ * Builds jars of generated modules for benchmarks.
+ * <p>
+ * {@link #create} compiles explicit modules with {@link javax.tools} in a single javac run. Module {@code synth.base}
+ * exports the {@code synth.base.Task} interface. Each of the other modules, {@code synth.m0} and up, requires it and
+ * exports a package of classes implementing it, so loading them also exercises delegation between modules.
+ * <p>
+ * {@link #createAutomatic} writes automatic modules with placeholder classes, for benchmarks that only name or resolve
+ * modules, and {@link #createLaunchTargets} compiles launch target providers.
+ */
+public final class SyntheticJars {
+    public static final String BASE_MODULE = "synth.base";
+
+    private SyntheticJars() {}
+
+    /**
+     * @return the jars written to {@code directory}, the base module's first
+     */
+    public static List<Path> create(Path directory, int modules, int classesPerModule) throws IOException {
+        final Path sources = directory.resolve("src");
+        final Path classes = directory.resolve("classes");
+        final Path jars = Files.createDirectories(directory.resolve("jars"));
+
+        write(sources.resolve(BASE_MODULE).resolve("module-info.java"), "module synth.base { exports synth.base; }");
+        write(sources.resolve(BASE_MODULE).resolve("synth/base/Task.java"), "package synth.base; public interface Task { int run(int seed); }");
+
+        for (int m = 0; m < modules; m++) {
+            final String module = moduleName(m);
+            final Path root = sources.resolve(module);
+            write(root.resolve("module-info.java"), "module " + module + " { requires synth.base; exports " + module + "; }");
+
+            for (int c = 0; c < classesPerModule; c++) {
+                final String source = """
+                        package %1$s;
+                        public final class %2$s implements synth.base.Task {
+                            private static final int[] TABLE = new int[] { %3$d, %4$d, %5$d, %6$d };
+                            public int run(int seed) {
+                                int result = seed;
+                                for (int value : TABLE) result = result * 31 + value;
+                                return result;
+                            }
+                        }
+                        """.formatted(module, className(c), m, c, m * c, m + c);
+                write(root.resolve(module.replace('.', '/')).resolve(className(c) + ".java"), source);
+            }
+        }
+
+        final List<String> arguments = new ArrayList<>(List.of("-d", classes.toString(), "--module-source-path", sources.toString(), "-nowarn"));
+        try (Stream<Path> files = Files.walk(sources)) {
+            files.filter(file -> file.toString().endsWith(".java")).map(Path::toString).forEach(arguments::add);
+        }
+
+        compile(arguments, sources);
+
+        final List<Path> result = new ArrayList<>();
+        result.add(jar(classes.resolve(BASE_MODULE), jars.resolve(BASE_MODULE + ".jar")));
+        for (int m = 0; m < modules; m++) {
+            result.add(jar(classes.resolve(moduleName(m)), jars.resolve(moduleName(m) + ".jar")));
+        }
+        return result;
+    }
+
+    /**
+     * Writes automatic modules named {@code synth-lib<i>-1.<i>.jar}, every other one declaring an
+     * {@code Automatic-Module-Name}. Their class entries are not real classes, don't load them.
+     *
+     * @return the jars written to {@code directory}
+     */
+    public static List<Path> createAutomatic(Path directory, int jars, int classesPerJar) throws IOException {
+        Files.createDirectories(directory);
+        final byte[] placeholder = new byte[256];
+        final List<Path> result = new ArrayList<>(jars);
+
+        for (int i = 0; i < jars; i++) {
+            final Manifest manifest = new Manifest();
+            manifest.getMainAttributes().put(Attributes.Name.MANIFEST_VERSION, "1.0");
+            if (i % 2 == 0) manifest.getMainAttributes().put(new Attributes.Name("Automatic-Module-Name"), "synth.auto" + i);
+
+            final Path jar = directory.resolve("synth-lib" + i + "-1." + i + ".jar");
+            try (JarOutputStream out = new JarOutputStream(Files.newOutputStream(jar), manifest)) {
+                for (int c = 0; c < classesPerJar; c++) {
+                    out.putNextEntry(new JarEntry("synth/auto" + i + "/p" + (c % 4) + "/" + className(c) + ".class"));
+                    out.write(placeholder);
+                    out.closeEntry();
+                }
+            }
+            result.add(jar);
+        }
+        return result;
+    }
+
+    /**
+     * Compiles automatic modules {@code synth.target0} and up, each providing one {@code ILaunchTarget} with the id
+     * {@code target<i>}. Every other provider declares its id with {@code @LaunchTargetId}.
+     * <p>
+     * They are compiled against, and at runtime link to, the bootstrap classes on the benchmark classpath. Automatic
+     * modules read the unnamed module, so this works without the bootstrap being a named module.
+     *
+     * @return the jars written to {@code directory}
+     */
+    public static List<Path> createLaunchTargets(Path directory, int targets) throws IOException {
+        final Path sources = directory.resolve("target-src");
+        final Path classes = directory.resolve("target-classes");
+        final Path jars = Files.createDirectories(directory.resolve("target-jars"));
+
+        final List<String> arguments = new ArrayList<>(List.of("-d", classes.toString(), "-cp", System.getProperty("java.class.path"), "-nowarn"));
+        for (int i = 0; i < targets; i++) {
+            final String annotation = i % 2 == 0 ? "@org.mangorage.bootstrap.api.launch.LaunchTargetId(\"target" + i + "\")" : "";
+            final String source = """
+                    package synth.target%1$d;
+                    %2$s
+                    public final class Target implements org.mangorage.bootstrap.api.launch.ILaunchTarget {
+                        public String getId() { return "target%1$d"; }
+                        public ModuleLayer setup(ModuleLayer bootstrapLayer, ModuleLayer parent, String[] args) { return null; }
+                        public void launch(ModuleLayer moduleLayer, String[] args) {}
+                    }
+                    """.formatted(i, annotation);
+            final Path file = sources.resolve("synth/target" + i + "/Target.java");
+            write(file, source);
+            arguments.add(file.toString());
+        }
+
+        compile(arguments, sources);
+
+        final List<Path> result = new ArrayList<>(targets);
+        for (int i = 0; i < targets; i++) {
+            final Path root = directory.resolve("target-roots").resolve("target" + i);
+            final Path pkg = Files.createDirectories(root.resolve("synth/target" + i));
+            Files.copy(classes.resolve("synth/target" + i + "/Target.class"), pkg.resolve("Target.class"));
+            write(root.resolve("META-INF/services/org.mangorage.bootstrap.api.launch.ILaunchTarget"), "synth.target" + i + ".Target\n");
+            result.add(jar(root, jars.resolve("synth-target" + i + ".jar")));
+        }
+        return result;
+    }
+
+    public static String moduleName(int module) {
+        return "synth.m" + module;
+    }
+
+    public static String className(int index) {
+        return "Task" + index;
+    }
+
+    /**
+     * Deletes a directory the jars were written to, quietly leaving whatever can't be deleted.
+     */
+    public static void delete(Path directory) {
+        try (Stream<Path> files = Files.walk(directory)) {
+            files.sorted(Comparator.reverseOrder()).forEach(file -> file.toFile().delete());
+        } catch (IOException ignored) {
+            // Only temporary files
+        }
+    }
+
+    private static void compile(List<String> arguments, Path sources) {
+        final JavaCompiler compiler = ToolProvider.getSystemJavaCompiler();
+        if (compiler == null) throw new IllegalStateException("Benchmarks need a JDK, not a JRE");
+        if (compiler.run(null, null, null, arguments.toArray(String[]::new)) != 0) {
+            throw new IllegalStateException("Couldn't compile the synthetic sources in " + sources);
+        }
+    }
+
+    private static Path jar(Path classes, Path jar) throws IOException {
+        final Manifest manifest = new Manifest();
+        manifest.getMainAttributes().put(Attributes.Name.MANIFEST_VERSION, "1.0");
+
+        try (JarOutputStream out = new JarOutputStream(Files.newOutputStream(jar), manifest);
+             Stream<Path> files = Files.walk(classes)) {
+            for (Path file : files.filter(Files::isRegularFile).sorted().toList()) {
+                out.putNextEntry(new JarEntry(classes.relativize(file).toString().replace('\\', '/')));
+                Files.copy(file, out);
+                out.closeEntry();
+            }
+        }
+        return jar;
+    }
+
+    private static void write(Path file, String content) {
+        try {
+            Files.createDirectories(file.getParent());
+            Files.writeString(file, content);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+}
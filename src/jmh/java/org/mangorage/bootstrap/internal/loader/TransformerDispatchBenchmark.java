@@ -0,0 +1,82 @@
+package org.mangorage.bootstrap.internal.loader;
+
+import org.mangorage.bootstrap.api.transformer.IClassTransformer;
+import org.mangorage.bootstrap.api.transformer.TransformResult;
+import org.mangorage.bootstrap.api.transformer.TransformerFlag;
+import org.mangorage.bootstrap.api.transformer.TransformerTargets;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.nio.ByteBuffer;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Per-class cost of the transformer chain with 24 transformers that each care about one package.
+ * <p>
+ * {@code UNTARGETED} is how transformers had to be written before {@link TransformerTargets}: called for every class
+ * and filtering on the name themselves. {@code TARGETED} declares the same packages as targets.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Fork(1)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+public class TransformerDispatchBenchmark {
+
+    private static final int TRANSFORMERS = 24;
+
+    @Param({"UNTARGETED", "TARGETED"})
+    public String dispatch;
+
+    private final ByteBuffer classData = ByteBuffer.allocate(512).asReadOnlyBuffer();
+    private TransformerPipeline pipeline;
+
+    @Setup
+    public void setup() {
+        final List<IClassTransformer> transformers = new ArrayList<>();
+        for (int i = 0; i < TRANSFORMERS; i++) {
+            transformers.add(new PackageTransformer("org.example.p" + i, dispatch.equals("TARGETED")));
+        }
+        pipeline = new TransformerPipeline(transformers, new TransformerHistory(HistoryRetention.OFF));
+    }
+
+    @Benchmark
+    public ByteBuffer targetedClass() {
+        return pipeline.transform("org.example.p7.Handler", "org.example.p7", classData);
+    }
+
+    @Benchmark
+    public ByteBuffer untouchedClass() {
+        return pipeline.transform("com.other.Util", "com.other", classData);
+    }
+
+    private record PackageTransformer(String pkg, boolean declareTargets) implements IClassTransformer {
+        @Override
+        public TransformResult transform(String className, byte[] classData) {
+            if (!className.startsWith(pkg + ".")) return TransformerFlag.NO_REWRITE.of(classData);
+            return TransformerFlag.SIMPLE_REWRITE.of(classData);
+        }
+
+        @Override
+        public String getName() {
+            return pkg;
+        }
+
+        @Override
+        public TransformerTargets getTargets() {
+            return declareTargets ? TransformerTargets.packages(pkg) : TransformerTargets.all();
+        }
+    }
+}
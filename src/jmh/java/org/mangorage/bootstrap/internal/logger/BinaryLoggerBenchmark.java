@@ -0,0 +1,60 @@
+package org.mangorage.bootstrap.internal.logger;
+
+import org.mangorage.bootstrap.benchmark.SyntheticJars;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * {@link BinaryMangoLogger} calls at {@code INFO}, written into mapped segments that roll and get deleted as the
+ * benchmark goes, to compare with the record handed to JUL in {@link JulLoggerBenchmark}.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Fork(1)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+public class BinaryLoggerBenchmark {
+
+    private final Integer guild = 1_234_567;
+    private final String user = "mango";
+    private Path directory;
+    private BinaryMangoLogger logger;
+
+    @Setup(Level.Trial)
+    public void setup() throws IOException {
+        directory = Files.createTempDirectory("binary-log-bench");
+        final BinaryLogWriter writer = new BinaryLogWriter(directory, 16 * 1024 * 1024, 2);
+        logger = new BinaryMangoLogger("benchmark.binary", "binary", writer);
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        SyntheticJars.delete(directory);
+    }
+
+    @Benchmark
+    public void enabledPlain() {
+        logger.info("Joined guild");
+    }
+
+    @Benchmark
+    public void enabledPlaceholders() {
+        logger.info("Joined guild {} as {}", guild, user);
+    }
+}
@@ -0,0 +1,61 @@
+package org.mangorage.bootstrap.internal.logger;
+
+import org.mangorage.bootstrap.api.logging.IMangoLogger;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Group;
+import org.openjdk.jmh.annotations.GroupThreads;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * {@link DeferredMangoLogger#get()} from 16 threads. In {@code invalidated}, one of them keeps invalidating the
+ * logger the way provider registration does, so the others regularly resolve it again.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Fork(1)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+public class DeferredLoggerBenchmark {
+
+    private DeferredMangoLogger logger;
+
+    @Setup
+    public void setup() {
+        // Nothing registers "benchmark", so resolving falls back to the default provider like an early lookup does
+        logger = new DeferredMangoLogger("benchmark", provider -> provider.getLogger("benchmark.deferred"));
+    }
+
+    @Benchmark
+    @Threads(16)
+    public IMangoLogger get() {
+        return logger.get();
+    }
+
+    @Benchmark
+    @Group("invalidated")
+    @GroupThreads(15)
+    public IMangoLogger getWhileInvalidated() {
+        return logger.get();
+    }
+
+    @Benchmark
+    @Group("invalidated")
+    @GroupThreads(1)
+    public void invalidate() {
+        Blackhole.consumeCPU(1_000);
+        logger.invalidate();
+    }
+}
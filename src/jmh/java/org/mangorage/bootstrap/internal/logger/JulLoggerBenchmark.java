@@ -0,0 +1,76 @@
+package org.mangorage.bootstrap.internal.logger;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+import java.util.logging.Handler;
+import java.util.logging.Level;
+import java.util.logging.LogRecord;
+import java.util.logging.Logger;
+
+/**
+ * {@link JulMangoLogger} calls at {@code INFO}, which the JUL logger passes on to a handler that drops the record,
+ * and at {@code DEBUG}, which it filters out. With the {@code gc} profiler this shows what a disabled call allocates.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Fork(1)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+public class JulLoggerBenchmark {
+
+    private final Integer guild = 1_234_567;
+    private final String user = "mango";
+    private JulMangoLogger logger;
+
+    @Setup
+    public void setup() {
+        final Logger jul = Logger.getLogger("benchmark.jul");
+        jul.setUseParentHandlers(false);
+        jul.setLevel(Level.INFO);
+        jul.addHandler(new Handler() {
+            @Override
+            public void publish(LogRecord record) {
+            }
+
+            @Override
+            public void flush() {
+            }
+
+            @Override
+            public void close() {
+            }
+        });
+        logger = new JulMangoLogger("benchmark.jul");
+    }
+
+    @Benchmark
+    public void enabledPlain() {
+        logger.info("Joined guild");
+    }
+
+    @Benchmark
+    public void enabledPlaceholders() {
+        logger.info("Joined guild {} as {}", guild, user);
+    }
+
+    @Benchmark
+    public void disabledPlain() {
+        logger.debug("Joined guild");
+    }
+
+    @Benchmark
+    public void disabledPlaceholders() {
+        logger.debug("Joined guild {} as {}", guild, user);
+    }
+}
@@ -0,0 +1,118 @@
+package org.mangorage.bootstrap.internal.module;
+
+import org.mangorage.bootstrap.benchmark.SyntheticJars;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.io.IOException;
+import java.lang.module.Configuration;
+import java.lang.module.ModuleFinder;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Launch layer with 64 modules of 50 classes each, defined to {@link LayerLoaderMode#ONE one} loader or
+ * {@link LayerLoaderMode#MANY one per module}.
+ * <p>
+ * {@code startup} defines the layer and loads every class from 8 threads, each thread working through its own
+ * modules the way independent plugins initialise concurrently. {@code loadClasses} only loads, into a layer defined
+ * just before, so its inverse is the class loading throughput.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.SingleShotTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Fork(value = 3)
+@Warmup(iterations = 10)
+@Measurement(iterations = 20)
+public class LayerLoaderModeBenchmark {
+
+    private static final int MODULES = 64;
+    private static final int CLASSES = 50;
+    private static final int THREADS = 8;
+
+    @Param({"ONE", "MANY"})
+    public LayerLoaderMode mode;
+
+    private Path directory;
+    private ModuleFinder finder;
+    private Set<String> roots;
+    private ExecutorService executor;
+    private ModuleLayer layer;
+
+    @Setup(Level.Trial)
+    public void createJars() throws IOException {
+        directory = Files.createTempDirectory("layer-benchmark");
+        finder = ModuleFinder.of(SyntheticJars.create(directory, MODULES, CLASSES).toArray(Path[]::new));
+        roots = new HashSet<>();
+        finder.findAll().forEach(reference -> roots.add(reference.descriptor().name()));
+        executor = Executors.newFixedThreadPool(THREADS);
+    }
+
+    @TearDown(Level.Trial)
+    public void deleteJars() {
+        executor.shutdownNow();
+        SyntheticJars.delete(directory);
+    }
+
+    @Setup(Level.Invocation)
+    public void defineLayer() {
+        layer = define();
+    }
+
+    @Benchmark
+    public int startup() throws Exception {
+        return loadAll(define());
+    }
+
+    @Benchmark
+    public int loadClasses() throws Exception {
+        return loadAll(layer);
+    }
+
+    private ModuleLayer define() {
+        final ModuleLayer boot = ModuleLayer.boot();
+        final Configuration configuration = boot.configuration().resolve(finder, ModuleFinder.of(), roots);
+        return mode.defineModules(configuration, List.of(boot), ClassLoader.getSystemClassLoader()).layer();
+    }
+
+    private int loadAll(ModuleLayer layer) throws Exception {
+        final List<Future<Integer>> results = new ArrayList<>(THREADS);
+        for (int t = 0; t < THREADS; t++) {
+            final int thread = t;
+            results.add(executor.submit(() -> {
+                int checksum = 0;
+                for (int m = thread; m < MODULES; m += THREADS) {
+                    final String module = SyntheticJars.moduleName(m);
+                    final ClassLoader loader = layer.findLoader(module);
+                    for (int c = 0; c < CLASSES; c++) {
+                        checksum += Class.forName(module + "." + SyntheticJars.className(c), true, loader).hashCode();
+                    }
+                }
+                return checksum;
+            }));
+        }
+
+        int checksum = 0;
+        for (Future<Integer> result : results) checksum += result.get();
+        return checksum;
+    }
+}
@@ -1,5 +1,9 @@
 module org.mangorage.bootstrap {
     requires java.scripting;
+    requires java.logging;
+    requires java.management;
+    requires jdk.management;
+    requires jdk.jfr;
     requires static com.google.gson;
     requires static java.sql;
 
@@ -8,13 +12,16 @@ module org.mangorage.bootstrap {
     exports org.mangorage.bootstrap.api.lifecycle;
     exports org.mangorage.bootstrap.api.loader;
     exports org.mangorage.bootstrap.api.logging;
+    exports org.mangorage.bootstrap.api.metrics;
     exports org.mangorage.bootstrap.api.module;
     exports org.mangorage.bootstrap.api.transformer;
     exports org.mangorage.bootstrap.api.util;
 
     opens org.mangorage.bootstrap;
 
+    uses org.mangorage.bootstrap.api.dependency.IDependencyLocator;
     uses org.mangorage.bootstrap.api.launch.ILaunchTarget;
+    uses org.mangorage.bootstrap.api.launch.ILaunchTargetEntrypoint;
     uses org.mangorage.bootstrap.api.lifecycle.IBootstrapLifecycle;
     uses org.mangorage.bootstrap.api.logging.ILoggerProvider;
 }
\ No newline at end of file
@@ -1,20 +1,44 @@
 package org.mangorage.bootstrap;
 
 import org.mangorage.bootstrap.api.launch.ILaunchTarget;
+import org.mangorage.bootstrap.api.launch.LaunchTargetId;
+import org.mangorage.bootstrap.api.lifecycle.IBootstrapLifecycle;
 import org.mangorage.bootstrap.api.logging.IDeferredMangoLogger;
 import org.mangorage.bootstrap.api.logging.ILoggerFactory;
+import org.mangorage.bootstrap.internal.cds.StartupArchive;
+import org.mangorage.bootstrap.internal.dependency.DependencyResolver;
+import org.mangorage.bootstrap.internal.launch.LaunchDirectoryWatcher;
+import org.mangorage.bootstrap.internal.launch.LayerLeakCheck;
+import org.mangorage.bootstrap.internal.loader.ClassWarmup;
+import org.mangorage.bootstrap.internal.loader.DefaultMangoLoaderFactory;
+import org.mangorage.bootstrap.internal.loader.TransformedClassCache;
 import org.mangorage.bootstrap.internal.logger.DefaultLoggerFactory;
-import org.mangorage.bootstrap.internal.util.Util;
+import org.mangorage.bootstrap.internal.metrics.BootstrapMetrics;
+import org.mangorage.bootstrap.internal.module.LaunchJarScanner;
+import org.mangorage.bootstrap.internal.module.LayerLoaderMode;
+import org.mangorage.bootstrap.internal.module.ModuleIndex;
+import org.mangorage.bootstrap.internal.profiler.StartupProfiler;
 
+import java.io.IOException;
 import java.lang.module.Configuration;
 import java.lang.module.ModuleFinder;
 import java.nio.file.Files;
 import java.nio.file.Path;
+import java.time.Duration;
+import java.util.Arrays;
 import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.OptionalInt;
 import java.util.ServiceLoader;
 import java.util.Set;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.Supplier;
 
 /**
  * Bootstrap orchestrator for modular applications.
@@ -27,7 +51,7 @@ import java.util.Set;
  *   <li>Delegating execution to the selected target</li>
  * </ol>
  *
- * <p><strong>Usage:</strong> {@code java -m org.mangorage.bootstrap --launchTarget <targetId>}
+ * <p><strong>Usage:</strong> {@code java -m org.mangorage.bootstrap --launchTarget <targetId> [--trainStartup] [--relaunch]}
  *
  * @since 1.0.84
  * @see ILaunchTarget
@@ -36,33 +60,112 @@ public final class Bootstrap {
 
     private static final IDeferredMangoLogger LOGGER = ILoggerFactory.getDefault().getWrappedProvider("slf4j", Bootstrap.class);
     private static final String LAUNCH_TARGET_ARG = "--launchTarget";
+    private static final String RELAUNCH_ARG = "--relaunch";
     private static final String DEFAULT_LAUNCH_PATH = "launch";
+    private static final String DEFAULT_CACHE_PATH = "cache/bootstrap";
+    private static final String MODULE_INDEX_FILE = "module-index.bin";
+    private static final String PROFILE_REPORT_FILE = "startup-profile.json";
+    private static final String CLASS_CACHE_DIR = "classes";
+    private static final StartupProfiler PROFILER = StartupProfiler.INSTANCE;
+    private static final Duration RELAUNCH_QUIET_PERIOD = Duration.ofMillis(Long.getLong("mangobot.bootstrap.relaunch.quietMillis", 2000));
+    private static final Duration STOP_TIMEOUT = Duration.ofSeconds(Long.getLong("mangobot.bootstrap.relaunch.stopTimeoutSeconds", 30));
+    private static final Duration LEAK_CHECK_TIMEOUT = Duration.ofSeconds(10);
 
     /**
      * Main entry point for the bootstrap framework.
      *
      * @param args Command line arguments. Must include --launchTarget followed by target ID.
+     *             {@code --trainStartup} builds the startup archive instead of launching.
+     *             {@code --relaunch} keeps the JVM running and relaunches the target whenever the launch jars change.
      * @throws IllegalArgumentException if arguments are invalid
      * @throws IllegalStateException if launch target cannot be found or executed
      */
     public static void main(String[] args) throws Throwable {
-        LOGGER.get().info("Starting MangoBotBootstrap framework");
+        // Handed over rather than kept in a local, which would keep the first launch layer reachable forever
+        final AtomicReference<Launched> launched = new AtomicReference<>();
+        final OptionalInt exitCode;
+        try {
+            exitCode = boot(args, launched);
+        } finally {
+            PROFILER.writeReport(Path.of(DEFAULT_CACHE_PATH).resolve(PROFILE_REPORT_FILE));
+        }
 
-        validateArguments(args);
+        // Only exit once the report is written, System.exit wouldn't run the finally above
+        if (exitCode.isPresent()) System.exit(exitCode.getAsInt());
+        if (launched.get() != null) relaunchOnChange(launched);
+    }
+
+    /**
+     * Runs the startup sequence, measuring each phase with the {@link StartupProfiler}.
+     *
+     * @param relaunchable receives the launch to watch for changes when running with {@code --relaunch}
+     * @return the code to exit the JVM with, or empty if it should keep running
+     */
+    @SuppressWarnings("try")
+    private static OptionalInt boot(String[] args, AtomicReference<Launched> relaunchable) throws Throwable {
+        LOGGER.get().info("Starting MangoBotBootstrap framework");
 
-        final String launchTarget = args[1];
-        validateLaunchTarget(launchTarget);
+        final String launchTarget;
+        try (StartupProfiler.Phase ignored = PROFILER.phase("argument-validation")) {
+            validateArguments(args);
+            launchTarget = args[1];
+            validateLaunchTarget(launchTarget);
+        }
 
         LOGGER.get().info("Initializing module layers for launch target: " + launchTarget);
 
         ModuleLayer parent = getParentModuleLayer();
         Path launchPath = Path.of(DEFAULT_LAUNCH_PATH);
+        Path cachePath = Path.of(DEFAULT_CACHE_PATH);
+
+        if (StartupArchive.isTrainingRequested(args)) {
+            return OptionalInt.of(StartupArchive.train(args, launchPath, cachePath));
+        }
+
+        try (StartupProfiler.Phase ignored = PROFILER.phase("startup-archive")) {
+            StartupArchive.check(launchPath, cachePath);
+        }
+
+        configureClassCache(cachePath);
+
+        final LaunchContext context = new LaunchContext(launchTarget, parent, launchPath, cachePath, args, Arrays.asList(args).contains(RELAUNCH_ARG));
+        final Launched launched = launch(context);
+        if (launched == null) return OptionalInt.of(0);
+
+        LOGGER.get().info("Bootstrap completed successfully");
+        if (context.relaunch()) relaunchable.set(launched);
+        return OptionalInt.empty();
+    }
+
+    /**
+     * Builds the launch layer, discovers the launch target and runs it. With {@code --relaunch} the target is
+     * launched on a thread of its own, so the caller can go on watching for changes.
+     *
+     * @return the launch, or {@code null} for a startup training run, which ends at its ready point
+     */
+    @SuppressWarnings("try")
+    private static Launched launch(LaunchContext context) throws Throwable {
+        final String launchTarget = context.launchTarget();
+        final ModuleLayer parent = context.parent();
+        final String[] args = context.args();
+
+        final List<Path> dependencies;
+        try (StartupProfiler.Phase ignored = PROFILER.phase("dependency-resolution")) {
+            dependencies = DependencyResolver.resolve(parent, launchTarget, context.cachePath());
+        }
 
-        final ModuleLayer moduleLayer = createLaunchModuleLayer(parent, launchPath);
+        final ModuleLayer moduleLayer;
+        try (StartupProfiler.Phase ignored = PROFILER.phase("layer-resolution")) {
+            moduleLayer = createLaunchModuleLayer(parent, context.launchPath(), dependencies, context.cachePath());
+        }
 
-        DefaultLoggerFactory.load(moduleLayer); // Load the providers this layer has!
+        final DiscoveredServices services;
+        try (StartupProfiler.Phase ignored = PROFILER.phase("service-discovery")) {
+            services = discoverServices(moduleLayer);
+        }
 
-        final Map<String, ILaunchTarget> launchTargetMap = discoverLaunchTargets(moduleLayer);
+        final Map<String, Supplier<ILaunchTarget>> launchTargetMap = services.launchTargets();
+        final List<IBootstrapLifecycle> lifecycleHooks = services.lifecycleHooks();
 
         if (!launchTargetMap.containsKey(launchTarget)) {
             throw new IllegalStateException(
@@ -70,29 +173,159 @@ public final class Bootstrap {
                             launchTarget, launchTargetMap.keySet()));
         }
 
-        LOGGER.get().info("Loading BootstrapLifecycle hooks");
-
-        final var lifecycleHooks = ServiceLoader.load(moduleLayer, org.mangorage.bootstrap.api.lifecycle.IBootstrapLifecycle.class)
-                .stream()
-                .map(ServiceLoader.Provider::get)
-                .toList();
-
         LOGGER.get().info("Launching target: " + launchTarget);
 
         try {
-            final var target = launchTargetMap.get(launchTarget);
-            final var launchLayer = target.setup(moduleLayer, parent, args);
+            final ILaunchTarget target;
+            try (StartupProfiler.Phase ignored = PROFILER.phase("target-instantiation")) {
+                target = launchTargetMap.get(launchTarget).get();
+            }
+
+            final ModuleLayer launchLayer;
+            try (StartupProfiler.Phase ignored = PROFILER.phase("target-setup")) {
+                launchLayer = target.setup(moduleLayer, parent, args);
+            }
+
+            final TransformedClassCache classCache = DefaultMangoLoaderFactory.INSTANCE.getClassCache();
+            if (classCache != null) {
+                final TransformedClassCache.Stats stats = classCache.getStats();
+                if (stats.hits() + stats.misses() > 0) LOGGER.get().info("Transformed class cache after setup: " + stats);
+            }
+
+            if (StartupArchive.isTrainingRun()) {
+                LOGGER.get().info("Startup training run reached its ready point, exiting to dump the archive");
+                return null;
+            }
+
+            BootstrapMetrics.publish();
+
+            Thread launchThread = null;
             if (launchLayer != null) {
-                DefaultLoggerFactory.load(launchLayer); // Load the providers this layer has!
-                target.launch(launchLayer, args);
+                if (ClassWarmup.isEnabled()) {
+                    try (StartupProfiler.Phase ignored = PROFILER.phase("class-warmup")) {
+                        ClassWarmup.run(launchLayer, context.cachePath());
+                    }
+                }
+
+                try (StartupProfiler.Phase ignored = PROFILER.phase("launch-logger-providers")) {
+                    DefaultLoggerFactory.load(launchLayer); // Load the providers this layer has!
+                }
+
+                if (context.relaunch()) {
+                    launchThread = startLaunchThread(target, launchLayer, moduleLayer, args, lifecycleHooks);
+                } else {
+                    try (StartupProfiler.Phase ignored = PROFILER.phase("target-launch")) {
+                        target.launch(launchLayer, args);
+                    }
+                }
             }
+
+            return new Launched(context, target, moduleLayer, launchLayer, launchThread);
         } catch (Throwable t) {
             LOGGER.get().error("Error during launch target execution: " + launchTarget, t);
             lifecycleHooks.forEach(hook -> hook.onError(t, moduleLayer));
             throw t;
         }
+    }
 
-        LOGGER.get().info("Bootstrap completed successfully");
+    @SuppressWarnings("try")
+    private static Thread startLaunchThread(ILaunchTarget target, ModuleLayer launchLayer, ModuleLayer moduleLayer,
+                                            String[] args, List<IBootstrapLifecycle> lifecycleHooks) {
+        return Thread.ofPlatform().name("launch-" + target.getId()).start(() -> {
+            try (StartupProfiler.Phase ignored = PROFILER.phase("target-launch")) {
+                target.launch(launchLayer, args);
+            } catch (Throwable t) {
+                LOGGER.get().error("Error during launch target execution: " + target.getId(), t);
+                lifecycleHooks.forEach(hook -> hook.onError(t, moduleLayer));
+            }
+        });
+    }
+
+    /**
+     * Watches the launch directory and relaunches the target in this JVM whenever its jars change, keeping the JIT
+     * profile and class metadata of everything outside the launch layer. Never returns.
+     * <p>
+     * The old target is {@link ILaunchTarget#stop() stopped} and its layer dropped before the new layer is built.
+     * Unchanged jars are served from the module index, so only changed jars are parsed again. Once relaunched, the
+     * old layer and its loaders are checked to have been garbage collected.
+     */
+    private static void relaunchOnChange(AtomicReference<Launched> first) throws IOException, InterruptedException {
+        Launched launched = first.getAndSet(null);
+        final LaunchContext context = launched.context();
+        Files.createDirectories(context.launchPath());
+
+        try (LaunchDirectoryWatcher watcher = LaunchDirectoryWatcher.open(context.launchPath())) {
+            LOGGER.get().info("Watching " + context.launchPath().toAbsolutePath() + " to relaunch " + context.launchTarget() + " when its jars change");
+
+            while (true) {
+                final Set<Path> changed = watcher.awaitChanges(RELAUNCH_QUIET_PERIOD);
+                LOGGER.get().info("Launch jars changed, relaunching " + context.launchTarget() + ": " + changed);
+
+                final long start = System.nanoTime();
+                final LayerLeakCheck leakCheck = launched == null ? null : stop(launched);
+                launched = null;
+
+                try {
+                    launched = launch(context);
+                    LOGGER.get().info(String.format("Relaunched %s in %.1f ms", context.launchTarget(), (System.nanoTime() - start) / 1e6));
+                } catch (Throwable t) {
+                    LOGGER.get().error("Relaunch failed, waiting for the next change of the launch jars", t);
+                    ClassWarmup.stop(); // In case the failed launch got as far as warming up its layer
+                }
+
+                // Also after a failed relaunch, the previous layer is gone either way
+                if (leakCheck != null) {
+                    final List<String> survivors = leakCheck.awaitCollected(LEAK_CHECK_TIMEOUT);
+                    if (survivors.isEmpty()) {
+                        LOGGER.get().info("Previous launch layer was garbage collected");
+                    } else {
+                        LOGGER.get().warn("Previous launch layer is still reachable after relaunch, it leaks: " + survivors);
+                    }
+                }
+            }
+        }
+    }
+
+    /**
+     * Stops the launched target and drops what the bootstrap holds of its layers.
+     *
+     * @return the check for the layers actually going away
+     */
+    private static LayerLeakCheck stop(Launched launched) throws InterruptedException {
+        try {
+            launched.target().stop();
+        } catch (Throwable t) {
+            LOGGER.get().warn("Launch target " + launched.context().launchTarget() + " failed to stop", t);
+        }
+
+        final Thread launchThread = launched.launchThread();
+        if (launchThread != null) {
+            launchThread.join(STOP_TIMEOUT);
+            if (launchThread.isAlive()) {
+                LOGGER.get().warn("Launch thread " + launchThread.getName() + " still running after " + STOP_TIMEOUT.toSeconds() + "s, interrupting it");
+                launchThread.interrupt();
+            }
+        }
+
+        if (launched.launchLayer() != null) {
+            DefaultLoggerFactory.unload(launched.launchLayer());
+            ClassWarmup.release(launched.launchLayer());
+        }
+        DefaultLoggerFactory.unload(launched.moduleLayer());
+        ClassWarmup.stop();
+
+        return LayerLeakCheck.of(launched.moduleLayer(), launched.launchLayer());
+    }
+
+    /**
+     * Points loaders from {@link org.mangorage.bootstrap.api.loader.IMangoLoaderFactory} at the on-disk class cache.
+     * Disabled with {@code -Dmangobot.bootstrap.classCache=false}, capped by {@code mangobot.bootstrap.classCache.maxSizeMb} (default 256).
+     */
+    private static void configureClassCache(Path cachePath) {
+        if (!Boolean.parseBoolean(System.getProperty("mangobot.bootstrap.classCache", "true"))) return;
+
+        final long maxSize = Long.getLong("mangobot.bootstrap.classCache.maxSizeMb", 256) * 1024 * 1024;
+        DefaultMangoLoaderFactory.INSTANCE.setClassCache(TransformedClassCache.open(cachePath.resolve(CLASS_CACHE_DIR), maxSize));
     }
 
     /**
@@ -139,23 +372,56 @@ public final class Bootstrap {
 
     /**
      * Creates the launch module layer from the specified path.
+     * The launch directory is scanned once and the result is used both for the root module names
+     * and as the module finder, with unchanged jars served from the module index in the cache path.
+     * The modules are defined to one loader, or one loader each, as {@link LayerLoaderMode#fromProperty()} says.
      */
-    private static ModuleLayer createLaunchModuleLayer(ModuleLayer parent, Path launchPath) {
+    private static ModuleLayer createLaunchModuleLayer(ModuleLayer parent, Path launchPath, List<Path> dependencies, Path cachePath) {
         try {
+            ModuleFinder launchFinder = ModuleFinder.of();
+            Set<String> rootModules = Set.of();
+
+            if (Files.exists(launchPath) || !dependencies.isEmpty()) {
+                final ModuleIndex moduleIndex = ModuleIndex.load(cachePath.resolve(MODULE_INDEX_FILE));
+
+                if (Files.exists(launchPath)) {
+                    final LaunchJarScanner.ScanResult scan = LaunchJarScanner.scan(launchPath, moduleIndex);
+                    launchFinder = scan.finder();
+                    rootModules = scan.rootModules();
+                }
+
+                if (!dependencies.isEmpty()) {
+                    // Jars in the launch directory take precedence over located dependencies of the same name
+                    final LaunchJarScanner.ScanResult scan = LaunchJarScanner.scan(dependencies, moduleIndex, "located dependencies");
+                    final Set<String> shadowed = new HashSet<>(scan.rootModules());
+                    shadowed.retainAll(rootModules);
+                    if (!shadowed.isEmpty()) LOGGER.get().info("Launch directory overrides located dependencies: " + shadowed);
+
+                    launchFinder = ModuleFinder.compose(launchFinder, scan.finder());
+                    final Set<String> roots = new HashSet<>(rootModules);
+                    roots.addAll(scan.rootModules());
+                    rootModules = Set.copyOf(roots);
+                }
+
+                moduleIndex.save();
+                LOGGER.get().info("Module index: " + moduleIndex.getStats());
+            }
+
             final Configuration moduleCfg = Configuration.resolveAndBind(
-                    ModuleFinder.of(launchPath),
+                    launchFinder,
                     List.of(parent.configuration()),
                     ModuleFinder.of(),
-                    Files.exists(launchPath) ? Util.getModuleNames(launchPath) : Set.of()
+                    rootModules
             );
 
-            final ModuleLayer.Controller moduleLayerController = ModuleLayer.defineModulesWithOneLoader(
+            final LayerLoaderMode loaderMode = LayerLoaderMode.fromProperty();
+            final ModuleLayer.Controller moduleLayerController = loaderMode.defineModules(
                     moduleCfg,
                     List.of(parent),
                     Thread.currentThread().getContextClassLoader()
             );
 
-            LOGGER.get().info("Successfully created module layer with " + moduleCfg.modules().size() + " modules");
+            LOGGER.get().info("Successfully created module layer with " + moduleCfg.modules().size() + " modules (loaders: " + loaderMode + ")");
             return moduleLayerController.layer();
 
         } catch (Exception e) {
@@ -164,19 +430,93 @@ public final class Bootstrap {
         }
     }
 
+    /**
+     * Runs the logger provider, launch target and lifecycle hook discovery passes concurrently,
+     * each on its own virtual thread, and waits for all of them before returning.
+     * <p>
+     * If any pass fails, the failure of the first failed pass in that order is thrown,
+     * with the failures of later passes attached as suppressed exceptions.
+     */
+    @SuppressWarnings("try")
+    private static DiscoveredServices discoverServices(ModuleLayer moduleLayer) {
+        final Future<Void> loggerProviders;
+        final Future<Map<String, Supplier<ILaunchTarget>>> launchTargets;
+        final Future<List<IBootstrapLifecycle>> lifecycleHooks;
+
+        try (ExecutorService executor = Executors.newThreadPerTaskExecutor(Thread.ofVirtual().name("bootstrap-discovery-", 0).factory())) {
+            loggerProviders = executor.submit(() -> {
+                try (StartupProfiler.Phase ignored = PROFILER.phase("logger-providers")) {
+                    DefaultLoggerFactory.load(moduleLayer); // Load the providers this layer has!
+                }
+                return null;
+            });
+
+            launchTargets = executor.submit(() -> {
+                try (StartupProfiler.Phase ignored = PROFILER.phase("launch-target-discovery")) {
+                    return discoverLaunchTargets(moduleLayer);
+                }
+            });
+
+            lifecycleHooks = executor.submit(() -> {
+                try (StartupProfiler.Phase ignored = PROFILER.phase("lifecycle-hooks")) {
+                    LOGGER.get().info("Loading BootstrapLifecycle hooks");
+                    return ServiceLoader.load(moduleLayer, IBootstrapLifecycle.class)
+                            .stream()
+                            .map(ServiceLoader.Provider::get)
+                            .toList();
+                }
+            });
+        } // Closing the executor is the join point for all passes
+
+        final Map<String, Future<?>> passes = new LinkedHashMap<>();
+        passes.put("logger providers", loggerProviders);
+        passes.put("launch targets", launchTargets);
+        passes.put("lifecycle hooks", lifecycleHooks);
+
+        IllegalStateException failure = null;
+        for (Map.Entry<String, Future<?>> pass : passes.entrySet()) {
+            if (pass.getValue().state() != Future.State.FAILED) continue;
+
+            final Throwable cause = pass.getValue().exceptionNow();
+            LOGGER.get().error("Service discovery failed for " + pass.getKey(), cause);
+
+            if (failure == null) {
+                failure = new IllegalStateException("Service discovery failed for " + pass.getKey(), cause);
+            } else {
+                failure.addSuppressed(cause);
+            }
+        }
+
+        if (failure != null) throw failure;
+
+        return new DiscoveredServices(launchTargets.resultNow(), lifecycleHooks.resultNow());
+    }
+
     /**
      * Discovers all available launch targets in the module layer.
+     * Providers annotated with {@link LaunchTargetId} are only instantiated once selected,
+     * all others are instantiated here to read their ID.
      */
-    private static Map<String, ILaunchTarget> discoverLaunchTargets(ModuleLayer moduleLayer) {
-        final Map<String, ILaunchTarget> launchTargetMap = new HashMap<>();
+    private static Map<String, Supplier<ILaunchTarget>> discoverLaunchTargets(ModuleLayer moduleLayer) {
+        final Map<String, Supplier<ILaunchTarget>> launchTargetMap = new HashMap<>();
 
         try {
             ServiceLoader.load(moduleLayer, ILaunchTarget.class)
                     .stream()
                     .forEach(provider -> {
                         try {
-                            final ILaunchTarget target = provider.get();
-                            final String targetId = target.getId();
+                            final LaunchTargetId declaredId = provider.type().getAnnotation(LaunchTargetId.class);
+                            final String targetId;
+                            final Supplier<ILaunchTarget> target;
+
+                            if (declaredId != null) {
+                                targetId = declaredId.value();
+                                target = () -> instantiateLaunchTarget(provider, targetId);
+                            } else {
+                                final ILaunchTarget instance = provider.get();
+                                targetId = instance.getId();
+                                target = () -> instance;
+                            }
 
                             if (targetId == null || targetId.trim().isEmpty()) {
                                 LOGGER.get().info("Ignoring launch target with null or empty ID from provider: " + provider.type());
@@ -204,4 +544,33 @@ public final class Bootstrap {
         LOGGER.get().info("Discovered " + launchTargetMap.size() + " launch targets: " + launchTargetMap.keySet());
         return launchTargetMap;
     }
+
+    /**
+     * Instantiates a launch target that was discovered by its {@link LaunchTargetId}.
+     */
+    private static ILaunchTarget instantiateLaunchTarget(ServiceLoader.Provider<ILaunchTarget> provider, String declaredId) {
+        final ILaunchTarget target = provider.get();
+
+        if (!declaredId.equals(target.getId())) {
+            LOGGER.get().warn("Launch target " + provider.type() + " declares ID '" + declaredId
+                    + "' but reports '" + target.getId() + "'");
+        }
+
+        return target;
+    }
+
+    /**
+     * The results of {@link #discoverServices(ModuleLayer)}.
+     */
+    private record DiscoveredServices(Map<String, Supplier<ILaunchTarget>> launchTargets, List<IBootstrapLifecycle> lifecycleHooks) {}
+
+    /**
+     * What stays the same across relaunches.
+     */
+    private record LaunchContext(String launchTarget, ModuleLayer parent, Path launchPath, Path cachePath, String[] args, boolean relaunch) {}
+
+    /**
+     * A running launch target and the layers it was given. The launch thread is only set with {@code --relaunch}.
+     */
+    private record Launched(LaunchContext context, ILaunchTarget target, ModuleLayer moduleLayer, ModuleLayer launchLayer, Thread launchThread) {}
 }
\ No newline at end of file
@@ -0,0 +1,31 @@
+package org.mangorage.bootstrap.api.launch;
+
+import org.mangorage.bootstrap.internal.launch.DefaultEntrypointRunner;
+
+import java.util.List;
+
+public interface IEntrypointRunner {
+    static IEntrypointRunner getDefault() {
+        return DefaultEntrypointRunner.INSTANCE;
+    }
+
+    /**
+     * Finds the {@link ILaunchTargetEntrypoint entrypoints} of a launch target with the {@link java.util.ServiceLoader}
+     * of the layer and runs them, see {@link #run(List, String[])}.
+     *
+     * @param launchTargetId the id of the launch target, only entrypoints with this {@link ILaunchTargetEntrypoint#getLaunchTargetId()} are run
+     */
+    void run(ModuleLayer moduleLayer, String launchTargetId, String[] args);
+
+    /**
+     * Runs the entrypoints, each on a virtual thread of its own as soon as its
+     * {@link ILaunchTargetEntrypoint#getDependencies() dependencies} are done. Returns once all of them are.
+     * <p>
+     * The first failure stops the run: entrypoints that haven't started are skipped and running ones are interrupted.
+     * No entrypoint thread outlives this method.
+     *
+     * @throws IllegalArgumentException if ids are duplicated, a dependency is missing or dependencies form a cycle
+     * @throws IllegalStateException if an entrypoint failed, with the first failure as cause and any other as suppressed
+     */
+    void run(List<? extends ILaunchTargetEntrypoint> entrypoints, String[] args);
+}
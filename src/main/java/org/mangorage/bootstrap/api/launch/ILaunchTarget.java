@@ -11,4 +11,13 @@ public interface ILaunchTarget {
     ModuleLayer setup(ModuleLayer bootstrapLayer, ModuleLayer parent, String[] args) throws Throwable;
 
     void launch(ModuleLayer moduleLayer, String[] args);
+
+    /**
+     * Stops whatever {@link #launch} started, when the bootstrap runs with {@code --relaunch} and the launch jars changed.
+     * <p>
+     * Stop your threads and close your resources before returning. Anything still running afterwards keeps the old
+     * layer reachable, which the bootstrap reports once the new one is launched.
+     */
+    default void stop() {
+    }
 }
@@ -1,7 +1,11 @@
 package org.mangorage.bootstrap.api.launch;
 
+import java.util.Set;
+
 /**
  * Entrypoint for launching
+ * <p>
+ * Entrypoints are run by {@link IEntrypointRunner}, concurrently unless they declare {@link #getDependencies() dependencies}.
  */
 public interface ILaunchTargetEntrypoint {
     /**
@@ -9,4 +13,19 @@ public interface ILaunchTargetEntrypoint {
      */
     String getLaunchTargetId();
     void init(String[] args);
+
+    /**
+     * @return the id other entrypoints of the same launch target refer to this one by, unique among them.
+     * Defaults to the class name.
+     */
+    default String getId() {
+        return getClass().getName();
+    }
+
+    /**
+     * @return the ids of the entrypoints whose {@link #init} has to finish before this one's starts.
+     */
+    default Set<String> getDependencies() {
+        return Set.of();
+    }
 }
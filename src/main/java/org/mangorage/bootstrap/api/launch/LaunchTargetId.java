@@ -0,0 +1,23 @@
+package org.mangorage.bootstrap.api.launch;
+
+import java.lang.annotation.Documented;
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * Declares the id of an {@link ILaunchTarget} on the provider type.
+ * <p>
+ * The bootstrap reads it without instantiating (or even initializing) the provider,
+ * so only the selected launch target ever gets constructed.
+ * Providers without it are still instantiated to call {@link ILaunchTarget#getId()}.
+ * <p>
+ * Must match {@link ILaunchTarget#getId()}.
+ */
+@Documented
+@Retention(RetentionPolicy.RUNTIME)
+@Target(ElementType.TYPE)
+public @interface LaunchTargetId {
+    String value();
+}
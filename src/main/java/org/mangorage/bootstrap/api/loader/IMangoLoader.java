@@ -3,10 +3,23 @@ package org.mangorage.bootstrap.api.loader;
 
 import org.mangorage.bootstrap.api.transformer.IClassTransformerHistory;
 
+import java.nio.ByteBuffer;
+
 public interface IMangoLoader {
 
     IClassTransformerHistory getTransformerHistory();
 
     byte[] getClassBytes(String name);
     boolean hasClass(String name);
+
+    /**
+     * Read-only view of the same bytes as {@link #getClassBytes(String)}. Loaders reading memory-mapped jars return
+     * a view of the mapping, so unlike {@link #getClassBytes(String)} this doesn't copy the class.
+     *
+     * @return the buffer, or {@code null} if this loader has no such class
+     */
+    default ByteBuffer getClassBuffer(String name) {
+        final byte[] bytes = getClassBytes(name);
+        return bytes == null ? null : ByteBuffer.wrap(bytes).asReadOnlyBuffer();
+    }
 }
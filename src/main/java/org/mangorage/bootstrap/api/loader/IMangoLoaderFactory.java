@@ -0,0 +1,36 @@
+package org.mangorage.bootstrap.api.loader;
+
+import org.mangorage.bootstrap.api.module.IModuleConfigurator;
+import org.mangorage.bootstrap.api.transformer.IClassTransformer;
+import org.mangorage.bootstrap.internal.loader.DefaultMangoLoaderFactory;
+
+import java.lang.module.Configuration;
+import java.util.List;
+
+public interface IMangoLoaderFactory {
+    static IMangoLoaderFactory getDefault() {
+        return DefaultMangoLoaderFactory.INSTANCE;
+    }
+
+    /**
+     * Defines the modules of the configuration to a single {@link IMangoLoader} which runs every class
+     * through the given transformers, in order, before defining it.
+     * <p>
+     * The loader of the new layer can be obtained through {@code controller.layer().findLoader(moduleName)}.
+     *
+     * @param parent the loader for classes that no module in or read by the configuration provides
+     */
+    default ModuleLayer.Controller defineModules(Configuration configuration, List<ModuleLayer> parentLayers, ClassLoader parent, List<IClassTransformer> transformers) {
+        return defineModules(configuration, parentLayers, parent, transformers, new IModuleConfigurator() {});
+    }
+
+    /**
+     * Same as {@link #defineModules(Configuration, List, ClassLoader, List)}, with resource lookups by module also
+     * searching the {@link IModuleConfigurator#getChildren(String) children} the configurator names.
+     * The resources of the layer are indexed up front for that.
+     * <p>
+     * {@link IModuleConfigurator#configureModuleLayer} is called once the layer is defined.
+     */
+    ModuleLayer.Controller defineModules(Configuration configuration, List<ModuleLayer> parentLayers, ClassLoader parent,
+                                         List<IClassTransformer> transformers, IModuleConfigurator configurator);
+}
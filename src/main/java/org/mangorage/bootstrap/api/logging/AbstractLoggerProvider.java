@@ -1,14 +1,46 @@
 package org.mangorage.bootstrap.api.logging;
 
+import java.lang.ref.ReferenceQueue;
+import java.lang.ref.WeakReference;
 import java.util.Map;
 import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Function;
 
+/**
+ * Base provider which caches one logger per name.
+ * <p>
+ * Lookups never lock: hits are a single map read and misses go through {@link ConcurrentHashMap#computeIfAbsent},
+ * which only contends with misses for the same name. With {@link CacheMode#WEAK} loggers nobody references anymore
+ * are dropped, which keeps providers handing out per-guild or per-channel loggers from growing forever.
+ */
 public abstract class AbstractLoggerProvider implements ILoggerProvider {
+
+    public enum CacheMode {
+        /**
+         * Every logger ever created is kept.
+         */
+        STRONG,
+        /**
+         * Loggers are kept while referenced elsewhere; unreferenced ones are recreated on the next lookup.
+         */
+        WEAK
+    }
+
     private final String name;
+    private final CacheMode cacheMode;
     private final Map<String, IMangoLogger> loggerCache = new ConcurrentHashMap<>();
+    private final Function<String, IMangoLogger> loggerFactory = this::createLogger;
+
+    private final Map<String, LoggerReference> weakLoggerCache = new ConcurrentHashMap<>();
+    private final ReferenceQueue<IMangoLogger> collectedLoggers = new ReferenceQueue<>();
 
     public AbstractLoggerProvider(String name) {
+        this(name, CacheMode.STRONG);
+    }
+
+    public AbstractLoggerProvider(String name, CacheMode cacheMode) {
         this.name = name;
+        this.cacheMode = cacheMode;
     }
 
     protected abstract IMangoLogger createLogger(String name);
@@ -18,15 +50,54 @@ public abstract class AbstractLoggerProvider implements ILoggerProvider {
         return name;
     }
 
+    public CacheMode getCacheMode() {
+        return cacheMode;
+    }
+
     @Override
     public IMangoLogger getLogger(String name) {
-        synchronized (this.name) {
-            if (!loggerCache.containsKey(name)) {
-                final var logger = createLogger(name);
-                loggerCache.put(name, logger);
-                return logger;
+        if (cacheMode == CacheMode.WEAK) return getWeakLogger(name);
+
+        final IMangoLogger logger = loggerCache.get(name);
+        return logger != null ? logger : loggerCache.computeIfAbsent(name, loggerFactory);
+    }
+
+    private IMangoLogger getWeakLogger(String name) {
+        final LoggerReference reference = weakLoggerCache.get(name);
+        if (reference != null) {
+            final IMangoLogger logger = reference.get();
+            if (logger != null) return logger;
+        }
+
+        expungeCollectedLoggers();
+
+        // A fresh array per miss keeps the lambda below free of shared state
+        final IMangoLogger[] result = new IMangoLogger[1];
+        weakLoggerCache.compute(name, (key, existing) -> {
+            final IMangoLogger current = existing == null ? null : existing.get();
+            if (current != null) {
+                result[0] = current;
+                return existing;
             }
+            result[0] = createLogger(key);
+            return new LoggerReference(key, result[0], collectedLoggers);
+        });
+        return result[0];
+    }
+
+    private void expungeCollectedLoggers() {
+        LoggerReference reference;
+        while ((reference = (LoggerReference) collectedLoggers.poll()) != null) {
+            weakLoggerCache.remove(reference.name, reference);
+        }
+    }
+
+    private static final class LoggerReference extends WeakReference<IMangoLogger> {
+        private final String name;
+
+        LoggerReference(String name, IMangoLogger logger, ReferenceQueue<IMangoLogger> queue) {
+            super(logger, queue);
+            this.name = name;
         }
-        return loggerCache.get(name);
     }
 }
@@ -1,8 +1,13 @@
 package org.mangorage.bootstrap.api.logging;
 
+import java.util.function.Supplier;
+
 /**
  * Enhanced logging wrapper that can delegate to different logging implementations.
  * Provides additional "fun" features while maintaining standard logging compatibility.
+ * <p>
+ * Messages with arguments use {@code {}} placeholders, see {@link MessageFormatter}.
+ * The fixed-arity and {@link Supplier} overloads don't allocate anything when the level is disabled.
  */
 public interface IMangoLogger {
 
@@ -13,22 +18,102 @@ public interface IMangoLogger {
     void trace(String message, Object... args);
     void trace(String message, Throwable throwable);
 
+    default void trace(String message, Object arg) {
+        if (isTraceEnabled()) trace(MessageFormatter.format(message, arg));
+    }
+
+    default void trace(String message, Object arg1, Object arg2) {
+        if (isTraceEnabled()) trace(MessageFormatter.format(message, arg1, arg2));
+    }
+
+    default void trace(String message, Object arg1, Object arg2, Object arg3) {
+        if (isTraceEnabled()) trace(MessageFormatter.format(message, arg1, arg2, arg3));
+    }
+
+    default void trace(Supplier<String> message) {
+        if (isTraceEnabled()) trace(message.get());
+    }
+
     void debug(String message);
     void debug(String message, Object... args);
     void debug(String message, Throwable throwable);
 
+    default void debug(String message, Object arg) {
+        if (isDebugEnabled()) debug(MessageFormatter.format(message, arg));
+    }
+
+    default void debug(String message, Object arg1, Object arg2) {
+        if (isDebugEnabled()) debug(MessageFormatter.format(message, arg1, arg2));
+    }
+
+    default void debug(String message, Object arg1, Object arg2, Object arg3) {
+        if (isDebugEnabled()) debug(MessageFormatter.format(message, arg1, arg2, arg3));
+    }
+
+    default void debug(Supplier<String> message) {
+        if (isDebugEnabled()) debug(message.get());
+    }
+
     void info(String message);
     void info(String message, Object... args);
     void info(String message, Throwable throwable);
 
+    default void info(String message, Object arg) {
+        if (isInfoEnabled()) info(MessageFormatter.format(message, arg));
+    }
+
+    default void info(String message, Object arg1, Object arg2) {
+        if (isInfoEnabled()) info(MessageFormatter.format(message, arg1, arg2));
+    }
+
+    default void info(String message, Object arg1, Object arg2, Object arg3) {
+        if (isInfoEnabled()) info(MessageFormatter.format(message, arg1, arg2, arg3));
+    }
+
+    default void info(Supplier<String> message) {
+        if (isInfoEnabled()) info(message.get());
+    }
+
     void warn(String message);
     void warn(String message, Object... args);
     void warn(String message, Throwable throwable);
 
+    default void warn(String message, Object arg) {
+        if (isWarnEnabled()) warn(MessageFormatter.format(message, arg));
+    }
+
+    default void warn(String message, Object arg1, Object arg2) {
+        if (isWarnEnabled()) warn(MessageFormatter.format(message, arg1, arg2));
+    }
+
+    default void warn(String message, Object arg1, Object arg2, Object arg3) {
+        if (isWarnEnabled()) warn(MessageFormatter.format(message, arg1, arg2, arg3));
+    }
+
+    default void warn(Supplier<String> message) {
+        if (isWarnEnabled()) warn(message.get());
+    }
+
     void error(String message);
     void error(String message, Object... args);
     void error(String message, Throwable throwable);
 
+    default void error(String message, Object arg) {
+        if (isErrorEnabled()) error(MessageFormatter.format(message, arg));
+    }
+
+    default void error(String message, Object arg1, Object arg2) {
+        if (isErrorEnabled()) error(MessageFormatter.format(message, arg1, arg2));
+    }
+
+    default void error(String message, Object arg1, Object arg2, Object arg3) {
+        if (isErrorEnabled()) error(MessageFormatter.format(message, arg1, arg2, arg3));
+    }
+
+    default void error(Supplier<String> message) {
+        if (isErrorEnabled()) error(message.get());
+    }
+
     // Fun/Enhanced methods
     void rainbow(String message);
     void celebration(String message);
@@ -0,0 +1,134 @@
+package org.mangorage.bootstrap.api.logging;
+
+import java.util.Arrays;
+
+/**
+ * Formats {@code {}} placeholder messages for {@link IMangoLogger}.
+ *
+ * <p>Each {@code {}} is replaced by the next argument, {@code \{}} is kept as a literal {@code {}}, and
+ * placeholders without an argument are left as they are. Templates without any placeholder fall back
+ * to {@link String#format}, so existing {@code %s} style messages keep working.
+ *
+ * <p>Placeholder formatting builds the message in a per-thread buffer that is reused between calls,
+ * so the only allocation is the resulting {@code String}.
+ */
+public final class MessageFormatter {
+    private static final String PLACEHOLDER = "{}";
+    private static final int INITIAL_CAPACITY = 256;
+    private static final int MAX_RETAINED_CAPACITY = 8192;
+    private static final ThreadLocal<Buffer> BUFFERS = ThreadLocal.withInitial(Buffer::new);
+
+    private MessageFormatter() {
+    }
+
+    public static String format(String template, Object arg) {
+        return format(template, 1, arg, null, null, null);
+    }
+
+    public static String format(String template, Object arg1, Object arg2) {
+        return format(template, 2, arg1, arg2, null, null);
+    }
+
+    public static String format(String template, Object arg1, Object arg2, Object arg3) {
+        return format(template, 3, arg1, arg2, arg3, null);
+    }
+
+    public static String format(String template, Object... args) {
+        if (args == null) return template;
+        return format(template, args.length, null, null, null, args);
+    }
+
+    private static String format(String template, int argCount, Object arg1, Object arg2, Object arg3, Object[] args) {
+        if (template == null) return null;
+
+        int index = template.indexOf(PLACEHOLDER);
+        if (index < 0) {
+            if (template.indexOf('%') < 0) return template;
+            return String.format(template, args != null ? args : Arrays.copyOf(new Object[]{arg1, arg2, arg3}, argCount));
+        }
+
+        final Buffer buffer = BUFFERS.get();
+        final StringBuilder builder = buffer.acquire();
+        try {
+            int start = 0;
+            int argIndex = 0;
+
+            while (index >= 0 && argIndex < argCount) {
+                if (index > 0 && template.charAt(index - 1) == '\\') {
+                    builder.append(template, start, index - 1).append(PLACEHOLDER);
+                } else {
+                    builder.append(template, start, index);
+                    final Object arg = args != null ? args[argIndex] : switch (argIndex) {
+                        case 0 -> arg1;
+                        case 1 -> arg2;
+                        default -> arg3;
+                    };
+                    appendArg(builder, arg);
+                    argIndex++;
+                }
+
+                start = index + PLACEHOLDER.length();
+                index = template.indexOf(PLACEHOLDER, start);
+            }
+
+            builder.append(template, start, template.length());
+            return builder.toString();
+        } finally {
+            buffer.release(builder);
+        }
+    }
+
+    private static void appendArg(StringBuilder builder, Object arg) {
+        try {
+            if (arg == null) {
+                builder.append("null");
+            } else if (!arg.getClass().isArray()) {
+                builder.append(arg);
+            } else if (arg instanceof Object[] array) {
+                builder.append(Arrays.deepToString(array));
+            } else if (arg instanceof int[] array) {
+                builder.append(Arrays.toString(array));
+            } else if (arg instanceof long[] array) {
+                builder.append(Arrays.toString(array));
+            } else if (arg instanceof byte[] array) {
+                builder.append(Arrays.toString(array));
+            } else if (arg instanceof char[] array) {
+                builder.append(Arrays.toString(array));
+            } else if (arg instanceof short[] array) {
+                builder.append(Arrays.toString(array));
+            } else if (arg instanceof boolean[] array) {
+                builder.append(Arrays.toString(array));
+            } else if (arg instanceof float[] array) {
+                builder.append(Arrays.toString(array));
+            } else if (arg instanceof double[] array) {
+                builder.append(Arrays.toString(array));
+            }
+        } catch (RuntimeException e) {
+            builder.append("[FAILED toString() of ").append(arg.getClass().getName()).append(": ").append(e).append(']');
+        }
+    }
+
+    /**
+     * The per-thread builder. An argument's {@code toString()} may log and re-enter the formatter,
+     * in which case the nested call gets a builder of its own.
+     */
+    private static final class Buffer {
+        private StringBuilder builder = new StringBuilder(INITIAL_CAPACITY);
+        private boolean inUse;
+
+        StringBuilder acquire() {
+            if (inUse) return new StringBuilder(INITIAL_CAPACITY);
+            inUse = true;
+            builder.setLength(0);
+            return builder;
+        }
+
+        void release(StringBuilder used) {
+            if (used != builder) return;
+            inUse = false;
+            if (builder.capacity() > MAX_RETAINED_CAPACITY) {
+                builder = new StringBuilder(INITIAL_CAPACITY);
+            }
+        }
+    }
+}
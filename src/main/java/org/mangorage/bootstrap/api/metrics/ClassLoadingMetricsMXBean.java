@@ -0,0 +1,21 @@
+package org.mangorage.bootstrap.api.metrics;
+
+import java.util.Map;
+
+/**
+ * Classes defined by the bootstrap's class loaders, registered as {@code org.mangorage.bootstrap:type=ClassLoading}.
+ * <p>
+ * The latency attributes time reading, transforming and defining each class.
+ * <p>
+ * Only loaders from {@code IMangoLoaderFactory} are counted. The launch layer the bootstrap builds itself uses the
+ * JDK's loaders, whatever {@code mangobot.bootstrap.layer.loaders} says, and those define classes without telling
+ * anyone; so do layers a target builds with {@code ModuleLayer.defineModulesWith*}. Such classes only show up in the
+ * JVM-wide {@code java.lang:type=ClassLoading} bean. A target that never defines modules through the factory reports
+ * nothing here.
+ */
+public interface ClassLoadingMetricsMXBean extends LatencyMetrics {
+    /**
+     * @return the number of classes defined, by module name
+     */
+    Map<String, Long> getClassesDefinedPerModule();
+}
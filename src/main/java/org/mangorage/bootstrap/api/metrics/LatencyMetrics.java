@@ -0,0 +1,23 @@
+package org.mangorage.bootstrap.api.metrics;
+
+/**
+ * Attributes of a latency histogram, shared by the metrics MXBeans that time something.
+ * <p>
+ * Percentiles are approximate: values are counted in log-linear buckets, eight per power of two, so a percentile
+ * is at most 12.5% above the true value.
+ */
+public interface LatencyMetrics {
+    long getCount();
+
+    long getTotalNanos();
+
+    double getMeanNanos();
+
+    long getP50Nanos();
+
+    long getP90Nanos();
+
+    long getP99Nanos();
+
+    long getMaxNanos();
+}
@@ -0,0 +1,21 @@
+package org.mangorage.bootstrap.api.metrics;
+
+/**
+ * Events logged through the loggers of one built-in provider, by level, registered as
+ * {@code org.mangorage.bootstrap:type=Logging,provider=<name>}. Events below a logger's level aren't counted.
+ */
+public interface LoggingMetricsMXBean {
+    String getProviderName();
+
+    long getTraceEvents();
+
+    long getDebugEvents();
+
+    long getInfoEvents();
+
+    long getWarnEvents();
+
+    long getErrorEvents();
+
+    long getTotalEvents();
+}
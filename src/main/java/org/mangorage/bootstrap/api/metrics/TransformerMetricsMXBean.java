@@ -0,0 +1,18 @@
+package org.mangorage.bootstrap.api.metrics;
+
+/**
+ * Calls to one {@link org.mangorage.bootstrap.api.transformer.IClassTransformer}, by its name, registered as
+ * {@code org.mangorage.bootstrap:type=Transformer,name=<name>}.
+ * <p>
+ * Classes a transformer doesn't target, and classes served from the transformed class cache, don't count.
+ */
+public interface TransformerMetricsMXBean extends LatencyMetrics {
+    String getTransformerName();
+
+    /**
+     * @return the number of calls that rewrote the class
+     */
+    long getRewrites();
+
+    long getFailures();
+}
@@ -1,6 +1,38 @@
 package org.mangorage.bootstrap.api.transformer;
 
+import java.nio.ByteBuffer;
+
 public interface IClassTransformer {
     TransformResult transform(String className, byte[] classData);
     String getName();
-}
\ No newline at end of file
+
+    /**
+     * Buffer variant of {@link #transform(String, byte[])}, used while no earlier transformer has rewritten the class.
+     * <p>
+     * {@code classData} is read-only and may be a view of a memory-mapped jar. Transformers that mostly pass classes
+     * through should override this and return {@code null} or {@link TransformerFlag#NO_REWRITE} for them, so those
+     * classes are never copied onto the heap. The default copies the buffer and calls {@link #transform(String, byte[])}.
+     */
+    default TransformResult transform(String className, ByteBuffer classData) {
+        final byte[] bytes = new byte[classData.remaining()];
+        classData.get(bytes);
+        return transform(className, bytes);
+    }
+
+    /**
+     * Version of this transformer's output. Bump it whenever the transformer starts producing different bytes.
+     * <p>
+     * The bootstrap caches transformed classes on disk only while every transformer in the chain reports a version,
+     * so the default of {@code null} opts this transformer out of caching.
+     */
+    default String getVersion() {
+        return null;
+    }
+
+    /**
+     * The classes this transformer is called for. Read once, when a loader is created.
+     */
+    default TransformerTargets getTargets() {
+        return TransformerTargets.all();
+    }
+}
@@ -0,0 +1,87 @@
+package org.mangorage.bootstrap.api.transformer;
+
+import java.util.HashSet;
+import java.util.Set;
+
+/**
+ * The classes an {@link IClassTransformer} wants to see.
+ * <p>
+ * Targets are exact class names, packages (including their subpackages), or everything. The pipeline indexes them
+ * once, so a transformer is only called for classes it targets and no longer has to filter on the class name itself.
+ *
+ * <pre>{@code
+ * TransformerTargets.packages("org.example.api").and(TransformerTargets.classes("org.example.Main"))
+ * }</pre>
+ */
+public final class TransformerTargets {
+    private static final TransformerTargets ALL = new TransformerTargets(true, Set.of(), Set.of());
+
+    private final boolean all;
+    private final Set<String> classes;
+    private final Set<String> packages;
+
+    private TransformerTargets(boolean all, Set<String> classes, Set<String> packages) {
+        this.all = all;
+        this.classes = classes;
+        this.packages = packages;
+    }
+
+    public static TransformerTargets all() {
+        return ALL;
+    }
+
+    /**
+     * @param classNames binary class names, such as {@code org.example.Outer$Inner}
+     */
+    public static TransformerTargets classes(String... classNames) {
+        return new TransformerTargets(false, Set.of(classNames), Set.of());
+    }
+
+    /**
+     * @param packageNames packages whose classes, and the classes of their subpackages, are targeted
+     */
+    public static TransformerTargets packages(String... packageNames) {
+        return new TransformerTargets(false, Set.of(), Set.of(packageNames));
+    }
+
+    public TransformerTargets and(TransformerTargets other) {
+        if (all || other.all) return ALL;
+
+        final Set<String> mergedClasses = new HashSet<>(classes);
+        mergedClasses.addAll(other.classes);
+        final Set<String> mergedPackages = new HashSet<>(packages);
+        mergedPackages.addAll(other.packages);
+        return new TransformerTargets(false, Set.copyOf(mergedClasses), Set.copyOf(mergedPackages));
+    }
+
+    public boolean isAll() {
+        return all;
+    }
+
+    public Set<String> getClasses() {
+        return classes;
+    }
+
+    public Set<String> getPackages() {
+        return packages;
+    }
+
+    /**
+     * Whether a class in the given package is targeted through {@link #packages(String...)} or {@link #all()}.
+     */
+    public boolean matchesPackage(String packageName) {
+        if (all) return true;
+
+        for (String pkg : packages) {
+            if (packageName.equals(pkg) || (packageName.startsWith(pkg) && packageName.charAt(pkg.length()) == '.')) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    @Override
+    public String toString() {
+        return all ? "TransformerTargets[all]" : "TransformerTargets[classes=" + classes + ", packages=" + packages + "]";
+    }
+}
@@ -0,0 +1,173 @@
+package org.mangorage.bootstrap.internal.cds;
+
+import org.mangorage.bootstrap.api.logging.IDeferredMangoLogger;
+import org.mangorage.bootstrap.api.logging.ILoggerFactory;
+import org.mangorage.bootstrap.internal.util.Hashing;
+
+import java.io.IOException;
+import java.lang.management.ManagementFactory;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.security.MessageDigest;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HexFormat;
+import java.util.List;
+import java.util.stream.Stream;
+
+/**
+ * Dynamic AppCDS archive for bootstrap startup.
+ *
+ * <p>{@code --trainStartup} re-runs the bootstrap in a child JVM with {@code -XX:ArchiveClassesAtExit}.
+ * The child stops at the ready point, right after {@code ILaunchTarget.setup}, and the JVM dumps every
+ * archivable class it loaded. Next to the archive we keep a stamp of the launch jar set and an argument
+ * file holding {@code -XX:SharedArchiveFile}, which deploy scripts pass to the JVM as {@code @startup.jsa.args}.
+ *
+ * <p>That includes classes of the launch layer loaded before the ready point. The JVM archives classes of
+ * custom loaders too, and hands the archived copy back when a loader later defines a class of the same
+ * name and the same bytes. A class whose transformed bytes differ from the training run doesn't match,
+ * and is defined from its bytes as usual. {@code -Xlog:class+load} reports archived classes with
+ * {@code source: shared objects file}.
+ *
+ * <p>Every normal boot compares the stamp against the launch directory. When the jars changed, the
+ * archive, stamp and argument file are deleted so that a stale archive is never picked up again.
+ */
+public final class StartupArchive {
+    public static final String TRAIN_ARG = "--trainStartup";
+    public static final String TRAINING_PROPERTY = "mangobot.bootstrap.cds.training";
+
+    private static final IDeferredMangoLogger LOGGER = ILoggerFactory.getDefault().getWrappedProvider("slf4j", StartupArchive.class);
+    private static final String ARCHIVE_FILE = "startup.jsa";
+    private static final String STAMP_FILE = "startup.jsa.stamp";
+    private static final String ARGS_FILE = "startup.jsa.args";
+
+    private StartupArchive() {
+    }
+
+    public static boolean isTrainingRequested(String[] args) {
+        return Arrays.asList(args).contains(TRAIN_ARG);
+    }
+
+    /**
+     * @return whether this JVM is the child started by {@link #train}
+     */
+    public static boolean isTrainingRun() {
+        return Boolean.getBoolean(TRAINING_PROPERTY);
+    }
+
+    /**
+     * Runs a training child JVM and installs the archive it produces.
+     *
+     * @return the exit code of the training JVM
+     */
+    public static int train(String[] args, Path launchPath, Path cachePath) throws IOException, InterruptedException {
+        Files.createDirectories(cachePath);
+        final Path archive = cachePath.resolve(ARCHIVE_FILE).toAbsolutePath();
+        final Path trainingArchive = cachePath.resolve(ARCHIVE_FILE + ".training").toAbsolutePath();
+        Files.deleteIfExists(trainingArchive);
+
+        final List<String> command = new ArrayList<>();
+        command.add(ProcessHandle.current().info().command().orElse(Path.of(System.getProperty("java.home"), "bin", "java").toString()));
+        for (String argument : ManagementFactory.getRuntimeMXBean().getInputArguments()) {
+            if (argument.startsWith("-XX:SharedArchiveFile") || argument.startsWith("-XX:ArchiveClassesAtExit")) continue;
+            if (argument.startsWith("-Djdk.module.main") || argument.startsWith("-Djava.class.path")) continue;
+            command.add(argument);
+        }
+        command.add("-XX:ArchiveClassesAtExit=" + trainingArchive);
+        command.add("-D" + TRAINING_PROPERTY + "=true");
+
+        final String classPath = System.getProperty("java.class.path", "");
+        if (!classPath.isEmpty()) {
+            command.add("-cp");
+            command.add(classPath);
+        }
+
+        final Module module = StartupArchive.class.getModule();
+        final String mainClass = "org.mangorage.bootstrap.Bootstrap";
+        if (module.isNamed()) {
+            command.add("-m");
+            command.add(module.getName() + "/" + mainClass);
+        } else {
+            command.add(mainClass);
+        }
+
+        for (String arg : args) {
+            if (!TRAIN_ARG.equals(arg)) command.add(arg);
+        }
+
+        LOGGER.get().info("Starting startup training run: " + String.join(" ", command));
+        final int exitCode = new ProcessBuilder(command).inheritIO().start().waitFor();
+
+        if (exitCode != 0 || !Files.isRegularFile(trainingArchive)) {
+            LOGGER.get().error("Startup training run failed with exit code " + exitCode + ", no archive was installed");
+            Files.deleteIfExists(trainingArchive);
+            return exitCode == 0 ? 1 : exitCode;
+        }
+
+        Files.move(trainingArchive, archive, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        Files.writeString(cachePath.resolve(STAMP_FILE), stamp(launchPath));
+        Files.writeString(cachePath.resolve(ARGS_FILE), "-XX:SharedArchiveFile=" + archive + System.lineSeparator());
+
+        LOGGER.get().info("Installed startup archive " + archive + ", launch with @" + cachePath.resolve(ARGS_FILE).toAbsolutePath() + " to use it");
+        return 0;
+    }
+
+    /**
+     * Validates the archive against the current launch directory, deleting it if the jar set changed.
+     */
+    public static void check(Path launchPath, Path cachePath) {
+        final Path archive = cachePath.resolve(ARCHIVE_FILE).toAbsolutePath();
+        if (!Files.isRegularFile(archive)) return;
+
+        try {
+            final Path stampFile = cachePath.resolve(STAMP_FILE);
+            final String expected = Files.isRegularFile(stampFile) ? Files.readString(stampFile) : "";
+
+            if (!expected.equals(stamp(launchPath))) {
+                Files.deleteIfExists(archive);
+                Files.deleteIfExists(stampFile);
+                Files.deleteIfExists(cachePath.resolve(ARGS_FILE));
+                LOGGER.get().warn("Launch jars changed, deleted stale startup archive. Run with " + TRAIN_ARG + " to rebuild it");
+                return;
+            }
+
+            final boolean inUse = ManagementFactory.getRuntimeMXBean().getInputArguments().stream()
+                    .anyMatch(argument -> argument.equals("-XX:SharedArchiveFile=" + archive));
+
+            if (inUse) {
+                LOGGER.get().info("Using startup archive " + archive);
+            } else {
+                LOGGER.get().info("Startup archive " + archive + " is up to date but not in use, launch with @"
+                        + cachePath.resolve(ARGS_FILE).toAbsolutePath());
+            }
+        } catch (IOException e) {
+            LOGGER.get().warn("Failed to validate startup archive " + archive, e);
+        }
+    }
+
+    /**
+     * Fingerprints the launch jar set by name, size and modification time, plus the running JVM version.
+     */
+    private static String stamp(Path launchPath) throws IOException {
+        final MessageDigest digest = Hashing.sha256();
+        digest.update(Runtime.version().toString().getBytes(StandardCharsets.UTF_8));
+
+        if (Files.isDirectory(launchPath)) {
+            final List<Path> jars;
+            try (Stream<Path> files = Files.list(launchPath)) {
+                jars = files.filter(file -> file.getFileName().toString().endsWith(".jar")).sorted().toList();
+            }
+
+            for (Path jar : jars) {
+                final BasicFileAttributes attributes = Files.readAttributes(jar, BasicFileAttributes.class);
+                final String line = "\n" + jar.getFileName() + ":" + attributes.size() + ":" + attributes.lastModifiedTime().toMillis();
+                digest.update(line.getBytes(StandardCharsets.UTF_8));
+            }
+        }
+
+        return HexFormat.of().formatHex(digest.digest());
+    }
+}
@@ -0,0 +1,254 @@
+package org.mangorage.bootstrap.internal.dependency;
+
+import org.mangorage.bootstrap.api.dependency.IDependency;
+import org.mangorage.bootstrap.api.dependency.IDependencyLocator;
+import org.mangorage.bootstrap.api.dependency.ModuleNameOrigin;
+import org.mangorage.bootstrap.api.logging.IDeferredMangoLogger;
+import org.mangorage.bootstrap.api.logging.ILoggerFactory;
+import org.mangorage.bootstrap.internal.util.Hashing;
+
+import java.io.IOException;
+import java.lang.module.ResolvedModule;
+import java.net.URI;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.security.MessageDigest;
+import java.util.ArrayList;
+import java.util.HexFormat;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.ServiceLoader;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+/**
+ * Collects the jars that {@link IDependencyLocator}s provide for a launch target.
+ * <p>
+ * Locators are services of the parent layer, i.e. modules next to the bootstrap. Every locator valid for the launch
+ * target runs on its own virtual thread, and every dependency it returns is resolved on another, so slow locators
+ * and downloads overlap. When two dependencies share a module name, the one with the stronger {@link ModuleNameOrigin}
+ * (the lower ordinal) wins; on a tie the first locator does.
+ * <p>
+ * The result is written to a lockfile together with a fingerprint of the inputs: the launch target and the locator
+ * types and jars. While the fingerprint matches and every locked jar is unchanged, later starts use the lockfile and
+ * don't run a single locator.
+ */
+public final class DependencyResolver {
+
+    private static final IDeferredMangoLogger LOGGER = ILoggerFactory.getDefault().getWrappedProvider("slf4j", DependencyResolver.class);
+    private static final String LOCK_FILE = "dependencies.lock";
+    private static final String LOCK_HEADER = "# MangoBot dependency lock, v1";
+
+    private DependencyResolver() {
+    }
+
+    /**
+     * @return the jars to add to the launch layer, in a stable order
+     */
+    public static List<Path> resolve(ModuleLayer parent, String launchTarget, Path cachePath) {
+        final List<ServiceLoader.Provider<IDependencyLocator>> providers = ServiceLoader.load(parent, IDependencyLocator.class)
+                .stream()
+                .toList();
+        if (providers.isEmpty()) return List.of();
+
+        final Path lockFile = cachePath.resolve(LOCK_FILE);
+        final String inputs = fingerprint(parent, launchTarget, providers);
+
+        final List<LockedDependency> locked = readLock(lockFile, inputs);
+        if (locked != null) {
+            LOGGER.get().info("Dependency lock is up to date, skipping " + providers.size() + " locator(s)");
+            return locked.stream().map(LockedDependency::path).toList();
+        }
+
+        final List<LockedDependency> resolved = runLocators(providers, launchTarget);
+        writeLock(lockFile, inputs, resolved);
+
+        LOGGER.get().info("Resolved " + resolved.size() + " dependencies for " + launchTarget);
+        return resolved.stream().map(LockedDependency::path).toList();
+    }
+
+    private static List<LockedDependency> runLocators(List<ServiceLoader.Provider<IDependencyLocator>> providers, String launchTarget) {
+        final List<CompletableFuture<List<Resolved>>> locators = new ArrayList<>();
+
+        try (ExecutorService executor = Executors.newThreadPerTaskExecutor(Thread.ofVirtual().name("bootstrap-dependency-", 0).factory())) {
+            for (ServiceLoader.Provider<IDependencyLocator> provider : providers) {
+                locators.add(CompletableFuture
+                        .supplyAsync(() -> {
+                            final IDependencyLocator locator = provider.get();
+                            return locator.isValidLocatorFor(launchTarget) ? locator.locate() : List.<IDependency>of();
+                        }, executor)
+                        .thenCompose(dependencies -> {
+                            final List<CompletableFuture<Resolved>> jars = dependencies.stream()
+                                    .map(dependency -> CompletableFuture.supplyAsync(() -> resolveDependency(dependency), executor))
+                                    .toList();
+                            return CompletableFuture.allOf(jars.toArray(CompletableFuture[]::new))
+                                    .thenApply(ignored -> jars.stream().map(CompletableFuture::join).toList());
+                        }));
+            }
+
+            // Resolutions are submitted as locators finish, so the executor has to stay open until all of them are done
+            CompletableFuture.allOf(locators.toArray(CompletableFuture[]::new)).exceptionally(ignored -> null).join();
+        }
+
+        IllegalStateException failure = null;
+        final Map<String, Resolved> byModule = new LinkedHashMap<>();
+        for (int i = 0; i < locators.size(); i++) {
+            final List<Resolved> dependencies;
+            try {
+                dependencies = locators.get(i).join();
+            } catch (CompletionException e) {
+                final String locator = providers.get(i).type().getName();
+                LOGGER.get().error("Dependency locator " + locator + " failed", e.getCause());
+                if (failure == null) {
+                    failure = new IllegalStateException("Dependency locator " + locator + " failed", e.getCause());
+                } else {
+                    failure.addSuppressed(e.getCause());
+                }
+                continue;
+            }
+
+            for (Resolved dependency : dependencies) {
+                byModule.merge(dependency.name(), dependency, (current, candidate) -> {
+                    if (candidate.origin().ordinal() < current.origin().ordinal()) {
+                        LOGGER.get().info("Module " + candidate.name() + ": " + candidate.jar().getFileName() + " (" + candidate.origin()
+                                + ") replaces " + current.jar().getFileName() + " (" + current.origin() + ")");
+                        return candidate;
+                    }
+                    return current;
+                });
+            }
+        }
+
+        if (failure != null) throw failure;
+
+        return byModule.values().stream()
+                .map(dependency -> LockedDependency.of(dependency.name(), dependency.origin(), dependency.jar()))
+                .toList();
+    }
+
+    private static Resolved resolveDependency(IDependency dependency) {
+        final Path jar = dependency.resolveJar();
+        if (jar == null || !Files.isRegularFile(jar)) {
+            throw new IllegalStateException("Dependency " + dependency.getName() + " resolved to a missing jar: " + jar);
+        }
+        return new Resolved(dependency.getName(), dependency.getModuleNameOrigin(), jar.toAbsolutePath().normalize());
+    }
+
+    /**
+     * Everything that decides what the locators return without running them: the launch target, the locator types,
+     * and the size and modification time of the jars holding them.
+     */
+    private static String fingerprint(ModuleLayer parent, String launchTarget, List<ServiceLoader.Provider<IDependencyLocator>> providers) {
+        final MessageDigest digest = Hashing.sha256();
+        digest.update(launchTarget.getBytes(StandardCharsets.UTF_8));
+
+        for (ServiceLoader.Provider<IDependencyLocator> provider : providers) {
+            final Class<?> type = provider.type();
+            digest.update(("\n" + type.getName() + "@" + describeLocation(parent, type.getModule())).getBytes(StandardCharsets.UTF_8));
+        }
+
+        return HexFormat.of().formatHex(digest.digest());
+    }
+
+    private static String describeLocation(ModuleLayer parent, Module module) {
+        final Optional<URI> location = Optional.ofNullable(module.getLayer())
+                .or(() -> Optional.of(parent))
+                .flatMap(layer -> layer.configuration().findModule(module.getName()))
+                .map(ResolvedModule::reference)
+                .flatMap(reference -> reference.location());
+
+        if (location.isEmpty() || !"file".equals(location.get().getScheme())) return module.getName();
+
+        try {
+            final BasicFileAttributes attributes = Files.readAttributes(Path.of(location.get()), BasicFileAttributes.class);
+            return location.get() + ":" + attributes.size() + ":" + attributes.lastModifiedTime().toMillis();
+        } catch (IOException e) {
+            return location.get().toString();
+        }
+    }
+
+    /**
+     * @return the locked dependencies, or {@code null} if the lock is missing, stale or any locked jar changed
+     */
+    private static List<LockedDependency> readLock(Path lockFile, String inputs) {
+        if (!Files.isRegularFile(lockFile)) return null;
+
+        try {
+            final List<String> lines = Files.readAllLines(lockFile, StandardCharsets.UTF_8);
+            if (lines.size() < 2 || !lines.get(0).equals(LOCK_HEADER) || !lines.get(1).equals("inputs=" + inputs)) return null;
+
+            final List<LockedDependency> dependencies = new ArrayList<>();
+            for (String line : lines.subList(2, lines.size())) {
+                if (line.isBlank()) continue;
+
+                final LockedDependency dependency = LockedDependency.parse(line);
+                if (!dependency.isUnchanged()) {
+                    LOGGER.get().info("Locked dependency " + dependency.name() + " changed, running locators again");
+                    return null;
+                }
+                dependencies.add(dependency);
+            }
+            return dependencies;
+        } catch (IOException | RuntimeException e) {
+            LOGGER.get().warn("Ignoring unreadable dependency lock " + lockFile + ": " + e.getMessage());
+            return null;
+        }
+    }
+
+    private static void writeLock(Path lockFile, String inputs, List<LockedDependency> dependencies) {
+        final List<String> lines = new ArrayList<>();
+        lines.add(LOCK_HEADER);
+        lines.add("inputs=" + inputs);
+        dependencies.forEach(dependency -> lines.add(dependency.format()));
+
+        try {
+            Files.createDirectories(lockFile.toAbsolutePath().getParent());
+            final Path temp = lockFile.resolveSibling(lockFile.getFileName() + ".tmp");
+            Files.write(temp, lines, StandardCharsets.UTF_8);
+            Files.move(temp, lockFile, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        } catch (IOException e) {
+            LOGGER.get().warn("Failed to write dependency lock: " + lockFile, e);
+        }
+    }
+
+    private record Resolved(String name, ModuleNameOrigin origin, Path jar) {
+    }
+
+    private record LockedDependency(String name, ModuleNameOrigin origin, Path path, long size, long lastModified) {
+
+        static LockedDependency of(String name, ModuleNameOrigin origin, Path jar) {
+            try {
+                final BasicFileAttributes attributes = Files.readAttributes(jar, BasicFileAttributes.class);
+                return new LockedDependency(name, origin, jar, attributes.size(), attributes.lastModifiedTime().toMillis());
+            } catch (IOException e) {
+                throw new IllegalStateException("Resolved dependency " + name + " vanished: " + jar, e);
+            }
+        }
+
+        static LockedDependency parse(String line) {
+            final String[] parts = line.split("\t", 5);
+            if (parts.length != 5) throw new IllegalArgumentException("Malformed lock line: " + line);
+            return new LockedDependency(parts[0], ModuleNameOrigin.valueOf(parts[1]), Path.of(parts[4]), Long.parseLong(parts[2]), Long.parseLong(parts[3]));
+        }
+
+        String format() {
+            return name + "\t" + origin + "\t" + size + "\t" + lastModified + "\t" + path;
+        }
+
+        boolean isUnchanged() {
+            try {
+                final BasicFileAttributes attributes = Files.readAttributes(path, BasicFileAttributes.class);
+                return attributes.size() == size && attributes.lastModifiedTime().toMillis() == lastModified;
+            } catch (IOException e) {
+                return false;
+            }
+        }
+    }
+}
@@ -0,0 +1,147 @@
+package org.mangorage.bootstrap.internal.launch;
+
+import org.mangorage.bootstrap.api.launch.IEntrypointRunner;
+import org.mangorage.bootstrap.api.launch.ILaunchTargetEntrypoint;
+import org.mangorage.bootstrap.api.logging.IDeferredMangoLogger;
+import org.mangorage.bootstrap.api.logging.ILoggerFactory;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Queue;
+import java.util.ServiceLoader;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Runs entrypoints on virtual threads, each one chained onto the {@link CompletableFuture futures} of its dependencies.
+ * <p>
+ * The executor is closed before {@link #run(List, String[])} returns, which waits for every entrypoint thread, so
+ * a run is scoped the way a {@code StructuredTaskScope} would scope it. That API is still a preview in Java 21.
+ */
+public final class DefaultEntrypointRunner implements IEntrypointRunner {
+    public static final DefaultEntrypointRunner INSTANCE = new DefaultEntrypointRunner();
+
+    private static final IDeferredMangoLogger LOGGER = ILoggerFactory.getDefault().getWrappedProvider("slf4j", DefaultEntrypointRunner.class);
+
+    private DefaultEntrypointRunner() {
+    }
+
+    @Override
+    public void run(ModuleLayer moduleLayer, String launchTargetId, String[] args) {
+        final List<ILaunchTargetEntrypoint> entrypoints = ServiceLoader.load(moduleLayer, ILaunchTargetEntrypoint.class)
+                .stream()
+                .map(ServiceLoader.Provider::get)
+                .filter(entrypoint -> launchTargetId.equals(entrypoint.getLaunchTargetId()))
+                .toList();
+
+        LOGGER.get().info("Found " + entrypoints.size() + " entrypoints for launch target " + launchTargetId);
+        run(entrypoints, args);
+    }
+
+    @Override
+    public void run(List<? extends ILaunchTargetEntrypoint> entrypoints, String[] args) {
+        final Map<String, ILaunchTargetEntrypoint> byId = new LinkedHashMap<>();
+        for (ILaunchTargetEntrypoint entrypoint : entrypoints) {
+            final ILaunchTargetEntrypoint existing = byId.putIfAbsent(entrypoint.getId(), entrypoint);
+            if (existing != null) {
+                throw new IllegalArgumentException("Entrypoint id '" + entrypoint.getId() + "' is used by both "
+                        + existing.getClass().getName() + " and " + entrypoint.getClass().getName());
+            }
+        }
+        if (byId.isEmpty()) return;
+
+        final List<ILaunchTargetEntrypoint> ordered = sort(byId);
+        final Map<String, CompletableFuture<Void>> futures = new HashMap<>();
+        final Queue<Throwable> failures = new ConcurrentLinkedQueue<>();
+        final AtomicBoolean failed = new AtomicBoolean();
+        final AtomicLong initNanos = new AtomicLong();
+        final long start = System.nanoTime();
+
+        try (ExecutorService executor = Executors.newThreadPerTaskExecutor(Thread.ofVirtual().name("entrypoint-", 0).factory())) {
+            for (ILaunchTargetEntrypoint entrypoint : ordered) {
+                final CompletableFuture<?>[] dependencies = entrypoint.getDependencies().stream()
+                        .map(futures::get)
+                        .toArray(CompletableFuture[]::new);
+
+                futures.put(entrypoint.getId(), CompletableFuture.allOf(dependencies).thenRunAsync(() -> {
+                    if (failed.get()) throw new CancellationException();
+
+                    final long started = System.nanoTime();
+                    try {
+                        entrypoint.init(args);
+                    } catch (Throwable t) {
+                        failures.add(t);
+                        // Skip whatever hasn't started yet and interrupt the rest
+                        if (failed.compareAndSet(false, true)) executor.shutdownNow();
+                        throw t;
+                    }
+
+                    final long took = System.nanoTime() - started;
+                    initNanos.addAndGet(took);
+                    LOGGER.get().info(String.format("Initialized entrypoint %s in %.1f ms", entrypoint.getId(), took / 1e6));
+                }, executor));
+            }
+
+            // Entrypoints that are skipped complete too, with a cancellation or rejection
+            CompletableFuture.allOf(futures.values().toArray(CompletableFuture[]::new))
+                    .exceptionally(t -> null)
+                    .join();
+        }
+
+        if (!failures.isEmpty()) {
+            final IllegalStateException exception = new IllegalStateException(failures.size() + " of " + ordered.size()
+                    + " entrypoints failed to initialize", failures.peek());
+            failures.stream().skip(1).forEach(exception::addSuppressed);
+            throw exception;
+        }
+
+        LOGGER.get().info(String.format("Initialized %d entrypoints in %.1f ms (%.1f ms spent in init)",
+                ordered.size(), (System.nanoTime() - start) / 1e6, initNanos.get() / 1e6));
+    }
+
+    /**
+     * Orders the entrypoints so every one comes after its dependencies, otherwise keeping the order they were found in.
+     */
+    private static List<ILaunchTargetEntrypoint> sort(Map<String, ILaunchTargetEntrypoint> byId) {
+        final Map<String, Integer> pending = new HashMap<>();
+        final Map<String, List<String>> dependents = new HashMap<>();
+
+        byId.forEach((id, entrypoint) -> {
+            for (String dependency : entrypoint.getDependencies()) {
+                if (!byId.containsKey(dependency)) {
+                    throw new IllegalArgumentException("Entrypoint '" + id + "' depends on '" + dependency + "', which doesn't exist");
+                }
+                dependents.computeIfAbsent(dependency, k -> new ArrayList<>()).add(id);
+            }
+            pending.put(id, entrypoint.getDependencies().size());
+        });
+
+        final Deque<String> ready = new ArrayDeque<>();
+        byId.keySet().stream().filter(id -> pending.get(id) == 0).forEach(ready::add);
+
+        final List<ILaunchTargetEntrypoint> ordered = new ArrayList<>(byId.size());
+        while (!ready.isEmpty()) {
+            final String id = ready.poll();
+            ordered.add(byId.get(id));
+            for (String dependent : dependents.getOrDefault(id, List.of())) {
+                if (pending.merge(dependent, -1, Integer::sum) == 0) ready.add(dependent);
+            }
+        }
+
+        if (ordered.size() != byId.size()) {
+            final List<String> cycle = byId.keySet().stream().filter(id -> pending.get(id) > 0).toList();
+            throw new IllegalArgumentException("Entrypoint dependencies form a cycle between " + cycle);
+        }
+        return ordered;
+    }
+}
@@ -0,0 +1,80 @@
+package org.mangorage.bootstrap.internal.launch;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.file.FileSystems;
+import java.nio.file.Path;
+import java.nio.file.StandardWatchEventKinds;
+import java.nio.file.WatchEvent;
+import java.nio.file.WatchKey;
+import java.nio.file.WatchService;
+import java.time.Duration;
+import java.util.Set;
+import java.util.TreeSet;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Watches the launch directory for jars being added, replaced or removed.
+ * <p>
+ * Code drops usually copy several jars, one write at a time, so {@link #awaitChanges(Duration)} only returns once
+ * the directory has been quiet for a while. That way a relaunch sees the whole drop and no half written jar.
+ */
+public final class LaunchDirectoryWatcher implements Closeable {
+    private final Path directory;
+    private final WatchService watchService;
+
+    private LaunchDirectoryWatcher(Path directory, WatchService watchService) {
+        this.directory = directory;
+        this.watchService = watchService;
+    }
+
+    public static LaunchDirectoryWatcher open(Path directory) throws IOException {
+        final WatchService watchService = FileSystems.getDefault().newWatchService();
+        try {
+            directory.register(watchService,
+                    StandardWatchEventKinds.ENTRY_CREATE,
+                    StandardWatchEventKinds.ENTRY_MODIFY,
+                    StandardWatchEventKinds.ENTRY_DELETE);
+        } catch (IOException | RuntimeException e) {
+            watchService.close();
+            throw e;
+        }
+        return new LaunchDirectoryWatcher(directory, watchService);
+    }
+
+    /**
+     * Blocks until at least one jar changed and no further change followed for {@code quietPeriod}.
+     *
+     * @return the changed jars, or just the directory if the watch service lost track of events
+     */
+    public Set<Path> awaitChanges(Duration quietPeriod) throws InterruptedException {
+        final Set<Path> changed = new TreeSet<>();
+
+        while (changed.isEmpty()) {
+            collect(watchService.take(), changed);
+        }
+
+        WatchKey key;
+        while ((key = watchService.poll(quietPeriod.toMillis(), TimeUnit.MILLISECONDS)) != null) {
+            collect(key, changed);
+        }
+
+        return changed;
+    }
+
+    private void collect(WatchKey key, Set<Path> changed) {
+        for (WatchEvent<?> event : key.pollEvents()) {
+            if (event.kind() == StandardWatchEventKinds.OVERFLOW) {
+                changed.add(directory);
+            } else if (event.context() instanceof Path name && name.toString().endsWith(".jar")) {
+                changed.add(directory.resolve(name));
+            }
+        }
+        key.reset();
+    }
+
+    @Override
+    public void close() throws IOException {
+        watchService.close();
+    }
+}
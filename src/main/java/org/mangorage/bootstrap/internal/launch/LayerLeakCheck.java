@@ -0,0 +1,63 @@
+package org.mangorage.bootstrap.internal.launch;
+
+import java.lang.ref.WeakReference;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Checks that module layers which were replaced, and their class loaders, actually get garbage collected.
+ * <p>
+ * Only weak references are kept, so the check itself never keeps anything alive. A survivor usually means a thread
+ * of the old launch target is still running, or something outside the layer still holds one of its objects.
+ */
+public final class LayerLeakCheck {
+    private final Map<WeakReference<Object>, String> references = new LinkedHashMap<>();
+
+    private LayerLeakCheck() {
+    }
+
+    /**
+     * Tracks the layers and the loaders of their modules. Loaders shared with other layers, such as the system
+     * loader, are skipped.
+     */
+    public static LayerLeakCheck of(ModuleLayer... layers) {
+        final LayerLeakCheck check = new LayerLeakCheck();
+        for (ModuleLayer layer : layers) {
+            if (layer == null) continue;
+
+            check.track(layer, "layer " + layer.modules().size() + " modules");
+            layer.modules().stream()
+                    .map(Module::getClassLoader)
+                    .distinct()
+                    .filter(loader -> loader != null && loader != ClassLoader.getSystemClassLoader() && loader != ClassLoader.getPlatformClassLoader())
+                    .forEach(loader -> check.track(loader, "loader " + (loader.getName() != null ? loader.getName() : loader.getClass().getName())));
+        }
+        return check;
+    }
+
+    private void track(Object object, String description) {
+        references.put(new WeakReference<>(object), description);
+    }
+
+    /**
+     * Requests garbage collections until everything tracked is collected or the timeout passes.
+     *
+     * @return descriptions of what is still reachable, empty if nothing leaked
+     */
+    public List<String> awaitCollected(Duration timeout) throws InterruptedException {
+        final long deadline = System.nanoTime() + timeout.toNanos();
+
+        while (true) {
+            references.keySet().removeIf(reference -> reference.get() == null);
+            if (references.isEmpty() || System.nanoTime() > deadline) break;
+
+            System.gc();
+            Thread.sleep(100);
+        }
+
+        return new ArrayList<>(references.values());
+    }
+}
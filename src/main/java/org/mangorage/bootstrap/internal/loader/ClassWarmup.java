@@ -0,0 +1,201 @@
+package org.mangorage.bootstrap.internal.loader;
+
+import org.mangorage.bootstrap.api.logging.IDeferredMangoLogger;
+import org.mangorage.bootstrap.api.logging.ILoggerFactory;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.TreeSet;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * Optional stage between {@code ILaunchTarget.setup} and {@code launch} which runs the transformers of every
+ * {@link TransformingClassLoader} in the launch layer over the classes likely to be loaded, in parallel, so the
+ * first requests after a restart don't pay for bytecode rewriting.
+ * <p>
+ * Enabled with {@code -Dmangobot.bootstrap.warmup=true}. Which classes are admitted:
+ * <ul>
+ *   <li>{@code mangobot.bootstrap.warmup.packages} - comma separated packages, including subpackages</li>
+ *   <li>otherwise the classes recorded by the previous run, kept in {@code warmup-classes.txt} in the cache directory</li>
+ * </ul>
+ * Every warm-up run records the classes it ends up defining and rewrites the list on exit.
+ */
+public final class ClassWarmup {
+
+    private static final IDeferredMangoLogger LOGGER = ILoggerFactory.getDefault().getWrappedProvider("slf4j", ClassWarmup.class);
+    private static final String CLASS_LIST_FILE = "warmup-classes.txt";
+
+    // Only the latest launch layer's loaders are recorded, a relaunch must not keep the previous ones reachable
+    private static final AtomicReference<Recording> recording = new AtomicReference<>();
+    private static final AtomicBoolean hookAdded = new AtomicBoolean();
+
+    private ClassWarmup() {
+    }
+
+    public static boolean isEnabled() {
+        return Boolean.getBoolean("mangobot.bootstrap.warmup");
+    }
+
+    public static void run(ModuleLayer layer, Path cachePath) {
+        if (!isEnabled()) return;
+
+        final List<TransformingClassLoader> loaders = layer.modules().stream()
+                .map(Module::getClassLoader)
+                .filter(TransformingClassLoader.class::isInstance)
+                .map(TransformingClassLoader.class::cast)
+                .distinct()
+                .toList();
+
+        if (loaders.isEmpty()) {
+            LOGGER.get().info("Class warm-up skipped, the launch layer has no transforming loaders");
+            return;
+        }
+
+        final Path classList = cachePath.resolve(CLASS_LIST_FILE);
+        loaders.forEach(TransformingClassLoader::recordDefinedClasses);
+        recording.set(new Recording(loaders, classList));
+        if (hookAdded.compareAndSet(false, true)) {
+            Runtime.getRuntime().addShutdownHook(new Thread(() -> writeClassList(recording.get()), "mango-warmup-record"));
+        }
+
+        final List<Candidate> candidates;
+        try {
+            candidates = selectCandidates(loaders, classList);
+        } catch (IOException e) {
+            LOGGER.get().warn("Class warm-up skipped, couldn't list classes", e);
+            return;
+        }
+
+        if (candidates == null) {
+            LOGGER.get().info("Class warm-up has no recorded class list yet, recording this run to " + classList);
+            return;
+        }
+
+        final long start = System.nanoTime();
+        final AtomicInteger staged = new AtomicInteger();
+        final AtomicInteger failed = new AtomicInteger();
+
+        final ForkJoinPool pool = new ForkJoinPool(Runtime.getRuntime().availableProcessors());
+        try {
+            pool.submit(() -> candidates.parallelStream().forEach(candidate -> {
+                try {
+                    if (candidate.loader().stage(candidate.className())) staged.incrementAndGet();
+                } catch (IOException | RuntimeException e) {
+                    // Left to the regular load, which reports the failure where it matters
+                    failed.incrementAndGet();
+                }
+            })).get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } catch (ExecutionException e) {
+            LOGGER.get().warn("Class warm-up failed", e.getCause());
+        } finally {
+            pool.shutdown();
+        }
+
+        LOGGER.get().info(String.format("Class warm-up staged %d of %d classes in %.1f ms (%d failed)",
+                staged.get(), candidates.size(), (System.nanoTime() - start) / 1e6, failed.get()));
+    }
+
+    /**
+     * Writes the class list recorded for the launch being stopped and lets go of its loaders, so they can be collected
+     * even if no new launch replaces them.
+     */
+    public static void stop() {
+        writeClassList(recording.getAndSet(null));
+    }
+
+    /**
+     * Drops whatever warm-up staged in the layer's loaders that the launch didn't load. Called when the launch is
+     * stopped for a relaunch, as targets usually return from {@code launch} before serving their first request.
+     * Without relaunching, staged classes are kept until they are loaded or the JVM exits.
+     */
+    public static void release(ModuleLayer layer) {
+        if (!isEnabled()) return;
+
+        final int discarded = layer.modules().stream()
+                .map(Module::getClassLoader)
+                .filter(TransformingClassLoader.class::isInstance)
+                .map(TransformingClassLoader.class::cast)
+                .distinct()
+                .mapToInt(TransformingClassLoader::discardStaged)
+                .sum();
+
+        if (discarded > 0) LOGGER.get().info("Class warm-up released " + discarded + " staged classes the stopped launch didn't load");
+    }
+
+    /**
+     * @return the classes to stage, or {@code null} when admission relies on a class list that wasn't recorded yet
+     */
+    private static List<Candidate> selectCandidates(List<TransformingClassLoader> loaders, Path classList) throws IOException {
+        final String packages = System.getProperty("mangobot.bootstrap.warmup.packages");
+        final List<Candidate> candidates = new ArrayList<>();
+
+        if (packages != null && !packages.isBlank()) {
+            final List<String> prefixes = Arrays.stream(packages.split(",")).map(String::trim).filter(pkg -> !pkg.isEmpty()).toList();
+            for (TransformingClassLoader loader : loaders) {
+                for (String className : loader.listClasses()) {
+                    if (inPackages(className, prefixes)) candidates.add(new Candidate(loader, className));
+                }
+            }
+            return candidates;
+        }
+
+        if (!Files.isRegularFile(classList)) return null;
+
+        final Set<String> recorded = new HashSet<>(Files.readAllLines(classList, StandardCharsets.UTF_8));
+        for (String className : recorded) {
+            for (TransformingClassLoader loader : loaders) {
+                if (loader.ownsClass(className)) {
+                    candidates.add(new Candidate(loader, className));
+                    break;
+                }
+            }
+        }
+        return candidates;
+    }
+
+    private static boolean inPackages(String className, List<String> packages) {
+        for (String pkg : packages) {
+            if (className.startsWith(pkg) && className.length() > pkg.length() && className.charAt(pkg.length()) == '.') return true;
+        }
+        return false;
+    }
+
+    private static void writeClassList(Recording recorded) {
+        if (recorded == null) return;
+
+        final Set<String> classes = new TreeSet<>();
+        recorded.loaders().forEach(loader -> classes.addAll(loader.getDefinedClasses()));
+        if (classes.isEmpty()) return;
+
+        final Path classList = recorded.classList();
+
+        try {
+            Files.createDirectories(classList.toAbsolutePath().getParent());
+            final Path temp = classList.resolveSibling(classList.getFileName() + ".tmp");
+            Files.write(temp, classes, StandardCharsets.UTF_8);
+            Files.move(temp, classList, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        } catch (IOException e) {
+            System.err.println("Couldn't write warm-up class list " + classList + ": " + e.getMessage());
+        }
+    }
+
+    private record Candidate(TransformingClassLoader loader, String className) {
+    }
+
+    private record Recording(List<TransformingClassLoader> loaders, Path classList) {
+    }
+}
@@ -0,0 +1,29 @@
+package org.mangorage.bootstrap.internal.loader;
+
+import org.mangorage.bootstrap.api.module.IModuleLayer;
+
+/**
+ * {@link IModuleLayer} over a layer's controller. Target modules may also come from the layer's parents.
+ */
+record ControllerModuleLayer(ModuleLayer.Controller controller) implements IModuleLayer {
+
+    @Override
+    public void addOpens(String sourceModule, String pkg, String targetModule) {
+        controller.addOpens(getModule(sourceModule), pkg, getModule(targetModule));
+    }
+
+    @Override
+    public void addExports(String sourceModule, String pkg, String targetModule) {
+        controller.addExports(getModule(sourceModule), pkg, getModule(targetModule));
+    }
+
+    @Override
+    public void addReads(String sourceModule, String targetModule) {
+        controller.addReads(getModule(sourceModule), getModule(targetModule));
+    }
+
+    private Module getModule(String name) {
+        return controller.layer().findModule(name)
+                .orElseThrow(() -> new IllegalArgumentException("No module named " + name + " in this layer or its parents"));
+    }
+}
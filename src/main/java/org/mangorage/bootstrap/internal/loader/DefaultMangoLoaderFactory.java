@@ -0,0 +1,42 @@
+package org.mangorage.bootstrap.internal.loader;
+
+import org.mangorage.bootstrap.api.loader.IMangoLoaderFactory;
+import org.mangorage.bootstrap.api.module.IModuleConfigurator;
+import org.mangorage.bootstrap.api.transformer.IClassTransformer;
+
+import java.lang.module.Configuration;
+import java.util.List;
+
+public final class DefaultMangoLoaderFactory implements IMangoLoaderFactory {
+    public static final DefaultMangoLoaderFactory INSTANCE = new DefaultMangoLoaderFactory();
+
+    private volatile TransformedClassCache classCache;
+
+    DefaultMangoLoaderFactory() {
+    }
+
+    /**
+     * Sets the cache used by loaders defined from now on, {@code null} disables caching.
+     */
+    public void setClassCache(TransformedClassCache classCache) {
+        this.classCache = classCache;
+    }
+
+    public TransformedClassCache getClassCache() {
+        return classCache;
+    }
+
+    @Override
+    public ModuleLayer.Controller defineModules(Configuration configuration, List<ModuleLayer> parentLayers, ClassLoader parent,
+                                                List<IClassTransformer> transformers, IModuleConfigurator configurator) {
+        final TransformingClassLoader loader = new TransformingClassLoader(
+                "mango-transforming", configuration.modules(), parent, transformers, classCache, HistoryRetention.fromProperty()
+        );
+        loader.initRemotePackageMap(configuration, parentLayers, name -> loader);
+        loader.initResourceIndex(configurator);
+
+        final ModuleLayer.Controller controller = ModuleLayer.defineModules(configuration, parentLayers, name -> loader);
+        configurator.configureModuleLayer(new ControllerModuleLayer(controller));
+        return controller;
+    }
+}
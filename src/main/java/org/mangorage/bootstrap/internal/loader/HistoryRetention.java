@@ -0,0 +1,26 @@
+package org.mangorage.bootstrap.internal.loader;
+
+import java.util.Locale;
+
+/**
+ * How much transformer history a {@link TransformingClassLoader} keeps, set with
+ * {@code -Dmangobot.bootstrap.transformer.history=off|final_only|full} (default {@code full}).
+ */
+public enum HistoryRetention {
+    /**
+     * Nothing is kept, {@code getHistory} always returns an empty list.
+     */
+    OFF,
+    /**
+     * Only the last transformer step of each class.
+     */
+    FINAL_ONLY,
+    /**
+     * Every step, stored as compressed deltas against the previous step.
+     */
+    FULL;
+
+    public static HistoryRetention fromProperty() {
+        return valueOf(System.getProperty("mangobot.bootstrap.transformer.history", "full").toUpperCase(Locale.ROOT));
+    }
+}
@@ -0,0 +1,161 @@
+package org.mangorage.bootstrap.internal.loader;
+
+import org.mangorage.bootstrap.api.logging.IDeferredMangoLogger;
+import org.mangorage.bootstrap.api.logging.ILoggerFactory;
+import org.mangorage.bootstrap.api.module.IModuleConfigurator;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.lang.module.ModuleReader;
+import java.lang.module.ModuleReference;
+import java.net.URI;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.stream.Stream;
+
+/**
+ * Maps every resource of a loader's modules to the modules containing it, built once when the layer is defined.
+ * <p>
+ * A module's resource lookup searches the module itself and then its {@link IModuleConfigurator#getChildren(String) children},
+ * in order. Instead of asking each of those modules' readers in turn, the index names the modules that have the
+ * resource, so a lookup costs one map access and one read from the module that wins. Names no module has are
+ * answered without touching a reader.
+ * <p>
+ * Modules whose reader can't list its contents are left out of the index and always probed; names they turned out
+ * not to have are remembered in a bounded negative cache.
+ */
+final class ResourceIndex {
+    private static final IDeferredMangoLogger LOGGER = ILoggerFactory.getDefault().getWrappedProvider("slf4j", ResourceIndex.class);
+    private static final int MAX_MISSES = 4096;
+    private static final ModuleReference[] NONE = new ModuleReference[0];
+
+    private final Map<String, ModuleReference[]> owners;
+    private final Map<String, ModuleReference[]> searchPaths;
+    private final Set<ModuleReference> unindexed;
+    private final Set<String> misses = ConcurrentHashMap.newKeySet();
+
+    private ResourceIndex(Map<String, ModuleReference[]> owners, Map<String, ModuleReference[]> searchPaths, Set<ModuleReference> unindexed) {
+        this.owners = owners;
+        this.searchPaths = searchPaths;
+        this.unindexed = unindexed;
+    }
+
+    /**
+     * Lists the contents of every module. Children that aren't one of the given modules are ignored, this loader
+     * can't read them anyway.
+     *
+     * @param modules the loader's modules, by name
+     */
+    static ResourceIndex build(Map<String, ModuleReference> modules, ReaderSource readers, IModuleConfigurator configurator) {
+        final Map<ModuleReference, List<String>> listings = new ConcurrentHashMap<>();
+        final Set<ModuleReference> unindexed = ConcurrentHashMap.newKeySet();
+
+        modules.values().parallelStream().forEach(reference -> {
+            try (Stream<String> names = readers.getReader(reference).list()) {
+                listings.put(reference, names.toList());
+            } catch (IOException | UncheckedIOException | UnsupportedOperationException e) {
+                LOGGER.get().warn("Couldn't list " + reference.descriptor().name() + ", its resources won't be indexed", e);
+                unindexed.add(reference);
+            }
+        });
+
+        final Map<String, ModuleReference[]> owners = new HashMap<>();
+        for (ModuleReference reference : modules.values()) {
+            final List<String> names = listings.get(reference);
+            if (names == null) continue;
+
+            for (String name : names) {
+                addOwner(owners, name, reference);
+                // Jar readers may find a directory by its name without the trailing slash
+                if (name.length() > 1 && name.endsWith("/")) addOwner(owners, name.substring(0, name.length() - 1), reference);
+            }
+        }
+
+        final Map<String, ModuleReference[]> searchPaths = new HashMap<>();
+        modules.forEach((name, reference) -> {
+            final Map<String, ModuleReference> path = new LinkedHashMap<>();
+            path.put(name, reference);
+            for (String child : configurator.getChildren(name)) {
+                final ModuleReference childReference = modules.get(child);
+                if (childReference != null) path.putIfAbsent(child, childReference);
+            }
+            searchPaths.put(name, path.values().toArray(NONE));
+        });
+
+        return new ResourceIndex(owners, searchPaths, Set.copyOf(unindexed));
+    }
+
+    private static void addOwner(Map<String, ModuleReference[]> owners, String name, ModuleReference reference) {
+        final ModuleReference[] existing = owners.get(name);
+        if (existing == null) {
+            owners.put(name, new ModuleReference[]{reference});
+        } else if (existing[existing.length - 1] != reference) {
+            final ModuleReference[] grown = Arrays.copyOf(existing, existing.length + 1);
+            grown[existing.length] = reference;
+            owners.put(name, grown);
+        }
+    }
+
+    /**
+     * Finds a resource in a module or, failing that, in its children.
+     *
+     * @return the resource, or {@code null} if neither the module nor its children have it
+     */
+    URI find(String moduleName, String name, ReaderSource readers) throws IOException {
+        final ModuleReference[] path = searchPaths.get(moduleName);
+        if (path == null) return null;
+
+        final ModuleReference[] candidates = owners.getOrDefault(name, NONE);
+        if (candidates.length == 0 && unindexed.isEmpty()) return null;
+
+        final String missKey = moduleName + '\0' + name;
+        if (misses.contains(missKey)) return null;
+
+        for (ModuleReference reference : path) {
+            if (!unindexed.contains(reference) && !contains(candidates, reference)) continue;
+
+            final Optional<URI> uri = readers.getReader(reference).find(name);
+            if (uri.isPresent()) return uri.get();
+        }
+
+        rememberMiss(missKey);
+        return null;
+    }
+
+    /**
+     * @return every module that may have the resource, in layer order, with unindexed modules last
+     */
+    List<ModuleReference> findOwners(String name) {
+        final ModuleReference[] candidates = owners.getOrDefault(name, NONE);
+        if (unindexed.isEmpty()) return Arrays.asList(candidates);
+
+        final List<ModuleReference> result = new ArrayList<>(candidates.length + unindexed.size());
+        result.addAll(Arrays.asList(candidates));
+        result.addAll(unindexed);
+        return result;
+    }
+
+    private void rememberMiss(String key) {
+        if (misses.size() >= MAX_MISSES) misses.clear();
+        misses.add(key);
+    }
+
+    private static boolean contains(ModuleReference[] references, ModuleReference reference) {
+        for (ModuleReference candidate : references) {
+            if (candidate == reference) return true;
+        }
+        return false;
+    }
+
+    @FunctionalInterface
+    interface ReaderSource {
+        ModuleReader getReader(ModuleReference reference) throws IOException;
+    }
+}
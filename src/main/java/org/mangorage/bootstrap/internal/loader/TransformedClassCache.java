@@ -0,0 +1,248 @@
+package org.mangorage.bootstrap.internal.loader;
+
+import org.mangorage.bootstrap.api.logging.IDeferredMangoLogger;
+import org.mangorage.bootstrap.api.logging.ILoggerFactory;
+import org.mangorage.bootstrap.internal.util.Hashing;
+
+import java.io.IOException;
+import java.nio.BufferUnderflowException;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.security.MessageDigest;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HexFormat;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.stream.Stream;
+import java.util.zip.CRC32;
+
+/**
+ * On-disk cache of transformed class bytes.
+ * <p>
+ * An entry is keyed by the hash of the original class bytes, the class name and the name and version of every
+ * transformer in the chain, so changing a jar or bumping a transformer's version simply misses. Each file carries a
+ * CRC of its payload; entries failing the check are deleted and treated as misses. Chains that didn't change a class
+ * store a small marker instead of a copy of the class. Next to the class, an entry may hold the transformer steps
+ * that produced it, so a hit can restore the class's transformer history.
+ * <p>
+ * Once the cache grows past its size cap, entries are deleted oldest written first when the cache is opened. Hits
+ * don't touch their file, which would cost a write on every class load, so a class cached long ago goes before a
+ * newer one even if it is used on every run; it is written again on the next run that needs it.
+ */
+public final class TransformedClassCache {
+
+    private static final IDeferredMangoLogger LOGGER = ILoggerFactory.getDefault().getWrappedProvider("slf4j", TransformedClassCache.class);
+    private static final int MAGIC = 0x4D42_5443; // MBTC
+    private static final int UNCHANGED = -1;
+    private static final int NO_STEPS = -1;
+    private static final byte FORMAT_VERSION = 2; // Part of the key, so entries of older formats just miss
+    private static final byte[] EMPTY = new byte[0];
+
+    private final Path directory;
+    private final long maxSize;
+
+    private final AtomicLong hits = new AtomicLong();
+    private final AtomicLong misses = new AtomicLong();
+    private final AtomicLong corrupt = new AtomicLong();
+    private final AtomicLong stored = new AtomicLong();
+    private final AtomicLong evicted = new AtomicLong();
+
+    private TransformedClassCache(Path directory, long maxSize) {
+        this.directory = directory;
+        this.maxSize = maxSize;
+    }
+
+    /**
+     * Opens the cache, trimming it to {@code maxSize} bytes in the background.
+     */
+    public static TransformedClassCache open(Path directory, long maxSize) {
+        final TransformedClassCache cache = new TransformedClassCache(directory, maxSize);
+        Thread.ofVirtual().name("mango-class-cache-trim").start(cache::trim);
+        return cache;
+    }
+
+    /**
+     * Computes the cache key of a class for a transformer chain.
+     *
+     * @param chain the chain's fingerprint, see {@link TransformerPipeline#getFingerprint()}
+     */
+    static String key(String className, ByteBuffer classData, String chain) {
+        final MessageDigest digest = Hashing.sha256();
+        digest.update(FORMAT_VERSION);
+        digest.update(chain.getBytes(StandardCharsets.UTF_8));
+        digest.update((byte) 0);
+        digest.update(className.getBytes(StandardCharsets.UTF_8));
+        digest.update((byte) 0);
+        digest.update(classData.duplicate());
+        return HexFormat.of().formatHex(digest.digest());
+    }
+
+    /**
+     * @param original returned when the entry records that the chain left the class untouched
+     * @return the cached entry, or {@code null} on a miss
+     */
+    Hit get(String key, ByteBuffer original) {
+        final Path file = resolve(key);
+
+        try {
+            final ByteBuffer in = ByteBuffer.wrap(Files.readAllBytes(file));
+            if (in.getInt() != MAGIC) throw new IOException("Bad magic");
+
+            final int length = in.getInt();
+            final long checksum = in.getLong();
+            if (length == UNCHANGED) {
+                if (in.hasRemaining()) throw new IOException("Trailing data after marker");
+                hits.incrementAndGet();
+                return new Hit(original, EMPTY);
+            }
+
+            final int stepsLength = in.getInt();
+            if (length < 0 || stepsLength < NO_STEPS || length + Math.max(stepsLength, 0) != in.remaining()) {
+                throw new IOException("Truncated entry");
+            }
+            if (crc(in) != checksum) throw new IOException("Checksum mismatch");
+
+            final ByteBuffer data = in.slice(in.position(), length);
+            final byte[] steps = stepsLength == NO_STEPS ? null : new byte[stepsLength];
+            if (steps != null) in.get(in.position() + length, steps);
+
+            hits.incrementAndGet();
+            return new Hit(data, steps);
+        } catch (NoSuchFileException e) {
+            misses.incrementAndGet();
+            return null;
+        } catch (IOException | BufferUnderflowException e) {
+            corrupt.incrementAndGet();
+            misses.incrementAndGet();
+            LOGGER.get().warn("Dropping corrupt class cache entry " + file.getFileName() + ": " + e);
+            deleteQuietly(file);
+            return null;
+        }
+    }
+
+    /**
+     * @param steps the encoded transformer steps that produced the class, or {@code null} if they weren't kept
+     */
+    void put(String key, ByteBuffer original, ByteBuffer transformed, byte[] steps) {
+        final Path file = resolve(key);
+        final boolean unchanged = transformed == original;
+        Path temp = null;
+
+        try {
+            Files.createDirectories(file.getParent());
+            temp = Files.createTempFile(file.getParent(), key, ".tmp");
+
+            final ByteBuffer out;
+            if (unchanged) {
+                out = ByteBuffer.allocate(16).putInt(MAGIC).putInt(UNCHANGED).putLong(0);
+            } else {
+                final int stepsLength = steps == null ? 0 : steps.length;
+                out = ByteBuffer.allocate(20 + transformed.remaining() + stepsLength);
+                out.putInt(MAGIC);
+                out.putInt(transformed.remaining());
+                out.putLong(0); // Checksum, filled in below
+                out.putInt(steps == null ? NO_STEPS : steps.length);
+                out.put(transformed.duplicate());
+                if (steps != null) out.put(steps);
+                out.putLong(8, crc(out.slice(20, out.capacity() - 20)));
+            }
+            Files.write(temp, out.array());
+
+            Files.move(temp, file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+            stored.incrementAndGet();
+        } catch (IOException e) {
+            LOGGER.get().warn("Failed to store class cache entry " + key, e);
+        } finally {
+            // Already moved into place unless writing or moving failed
+            if (temp != null) deleteQuietly(temp);
+        }
+    }
+
+    public Stats getStats() {
+        return new Stats(hits.get(), misses.get(), corrupt.get(), stored.get(), evicted.get());
+    }
+
+    private Path resolve(String key) {
+        return directory.resolve(key.substring(0, 2)).resolve(key);
+    }
+
+    private void trim() {
+        if (!Files.isDirectory(directory)) return;
+
+        record CachedFile(Path path, long size, long lastModified) {}
+        final List<CachedFile> files = new ArrayList<>();
+        long total = 0;
+
+        try (Stream<Path> paths = Files.walk(directory, 2)) {
+            for (Path path : (Iterable<Path>) paths::iterator) {
+                final BasicFileAttributes attributes = Files.readAttributes(path, BasicFileAttributes.class);
+                if (!attributes.isRegularFile()) continue;
+
+                files.add(new CachedFile(path, attributes.size(), attributes.lastModifiedTime().toMillis()));
+                total += attributes.size();
+            }
+        } catch (IOException e) {
+            LOGGER.get().warn("Couldn't scan class cache " + directory, e);
+            return;
+        }
+
+        if (total <= maxSize) return;
+
+        files.sort(Comparator.comparingLong(CachedFile::lastModified));
+        for (CachedFile file : files) {
+            if (total <= maxSize) break;
+            if (deleteQuietly(file.path())) {
+                total -= file.size();
+                evicted.incrementAndGet();
+            }
+        }
+    }
+
+    private static boolean deleteQuietly(Path file) {
+        try {
+            return Files.deleteIfExists(file);
+        } catch (IOException e) {
+            return false;
+        }
+    }
+
+    private static long crc(ByteBuffer data) {
+        final CRC32 crc = new CRC32();
+        crc.update(data.duplicate());
+        return crc.getValue();
+    }
+
+    /**
+     * A cached class.
+     *
+     * @param data the transformed class, or the original if the chain left it untouched
+     * @param steps the encoded transformer steps that produced it, empty if the class was left untouched, or
+     *              {@code null} if they weren't kept when the entry was stored
+     */
+    record Hit(ByteBuffer data, byte[] steps) {}
+
+    /**
+     * Counters for one run.
+     *
+     * @param corrupt entries that failed validation, also counted as misses
+     * @param evicted entries deleted to stay under the size cap, oldest written first
+     */
+    public record Stats(long hits, long misses, long corrupt, long stored, long evicted) {
+        public double hitRate() {
+            final long total = hits + misses;
+            return total == 0 ? 0 : (double) hits / total;
+        }
+
+        @Override
+        public String toString() {
+            return "hits=" + hits + ", misses=" + misses + ", corrupt=" + corrupt + ", stored=" + stored
+                    + ", evicted=" + evicted + String.format(", hitRate=%.1f%%", hitRate() * 100);
+        }
+    }
+}
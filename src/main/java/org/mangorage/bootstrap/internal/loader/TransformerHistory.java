@@ -0,0 +1,155 @@
+package org.mangorage.bootstrap.internal.loader;
+
+import org.mangorage.bootstrap.api.transformer.IClassTransformer;
+import org.mangorage.bootstrap.api.transformer.IClassTransformerHistory;
+import org.mangorage.bootstrap.api.transformer.ITransformerResultHistory;
+import org.mangorage.bootstrap.api.transformer.TransformerFlag;
+
+import java.io.ByteArrayOutputStream;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.zip.DataFormatException;
+import java.util.zip.Deflater;
+import java.util.zip.Inflater;
+
+/**
+ * Keeps the transformer steps of every class that was actually rewritten. Untouched classes have no history.
+ * <p>
+ * Steps are not kept as byte arrays. The bytes a class started with are stored deflated, and each step only stores
+ * the deflated range in which its output differs from its input. {@link #getHistory(String)} replays the steps,
+ * so the full arrays exist only while somebody looks at them.
+ */
+final class TransformerHistory implements IClassTransformerHistory {
+    private final HistoryRetention retention;
+    private final Map<String, ClassHistory> histories = new ConcurrentHashMap<>();
+
+    TransformerHistory(HistoryRetention retention) {
+        this.retention = retention;
+    }
+
+    boolean isEnabled() {
+        return retention != HistoryRetention.OFF;
+    }
+
+    /**
+     * @param steps the steps that rewrote the class, in order
+     */
+    void record(String className, List<Step> steps) {
+        if (steps.isEmpty()) return;
+
+        switch (retention) {
+            case OFF -> {
+            }
+            case FINAL_ONLY -> histories.put(className, ClassHistory.encode(List.of(steps.getLast())));
+            case FULL -> histories.put(className, ClassHistory.encode(steps));
+        }
+    }
+
+    @Override
+    public List<ITransformerResultHistory> getHistory(String name) {
+        final ClassHistory history = histories.get(name);
+        return history == null ? List.of() : history.decode();
+    }
+
+    /**
+     * A transformer's rewrite of a class, as seen by the pipeline.
+     */
+    record Step(IClassTransformer transformer, TransformerFlag flag, byte[] input, byte[] output) {
+    }
+
+    /**
+     * Output of a step, as the range replacing {@code input[prefix, input.length - suffix)}.
+     */
+    private record StoredStep(Class<?> transformer, String transformerName, TransformerFlag flag,
+                              int prefix, int suffix, int middleLength, byte[] middle) {
+    }
+
+    private record ClassHistory(int baseLength, byte[] base, StoredStep[] steps) {
+
+        static ClassHistory encode(List<Step> steps) {
+            final byte[] base = steps.getFirst().input();
+            final StoredStep[] stored = new StoredStep[steps.size()];
+
+            byte[] previous = base;
+            for (int i = 0; i < stored.length; i++) {
+                final Step step = steps.get(i);
+                final byte[] output = step.output();
+
+                final int limit = Math.min(previous.length, output.length);
+                int prefix = 0;
+                while (prefix < limit && previous[prefix] == output[prefix]) prefix++;
+                int suffix = 0;
+                while (suffix < limit - prefix && previous[previous.length - 1 - suffix] == output[output.length - 1 - suffix]) suffix++;
+
+                final int middleLength = output.length - prefix - suffix;
+                stored[i] = new StoredStep(
+                        step.transformer().getClass(), step.transformer().getName(), step.flag(),
+                        prefix, suffix, middleLength, deflate(output, prefix, middleLength)
+                );
+                previous = output;
+            }
+
+            return new ClassHistory(base.length, deflate(base, 0, base.length), stored);
+        }
+
+        List<ITransformerResultHistory> decode() {
+            final List<ITransformerResultHistory> history = new ArrayList<>(steps.length);
+
+            byte[] current = inflate(base, baseLength);
+            ITransformerResultHistory previous = null;
+            for (StoredStep step : steps) {
+                final byte[] output = new byte[step.prefix() + step.middleLength() + step.suffix()];
+                System.arraycopy(current, 0, output, 0, step.prefix());
+                System.arraycopy(inflate(step.middle(), step.middleLength()), 0, output, step.prefix(), step.middleLength());
+                System.arraycopy(current, current.length - step.suffix(), output, output.length - step.suffix(), step.suffix());
+
+                previous = new TransformerResultHistory(current, previous, step.transformer(), step.transformerName(), step.flag(), output);
+                history.add(previous);
+                current = output;
+            }
+
+            return List.copyOf(history);
+        }
+    }
+
+    private static byte[] deflate(byte[] data, int offset, int length) {
+        if (length == 0) return new byte[0];
+
+        final Deflater deflater = new Deflater(Deflater.BEST_SPEED);
+        try {
+            deflater.setInput(data, offset, length);
+            deflater.finish();
+
+            final ByteArrayOutputStream out = new ByteArrayOutputStream(Math.max(64, length / 2));
+            final byte[] buffer = new byte[4096];
+            while (!deflater.finished()) {
+                out.write(buffer, 0, deflater.deflate(buffer));
+            }
+            return out.toByteArray();
+        } finally {
+            deflater.end();
+        }
+    }
+
+    private static byte[] inflate(byte[] data, int length) {
+        if (length == 0) return new byte[0];
+
+        final Inflater inflater = new Inflater();
+        try {
+            inflater.setInput(data);
+            final byte[] result = new byte[length];
+            int read = 0;
+            while (read < length && !inflater.finished()) {
+                read += inflater.inflate(result, read, length - read);
+            }
+            if (read != length) throw new IllegalStateException("Transformer history is truncated, got " + read + " of " + length + " bytes");
+            return result;
+        } catch (DataFormatException e) {
+            throw new IllegalStateException("Transformer history is corrupt", e);
+        } finally {
+            inflater.end();
+        }
+    }
+}
@@ -0,0 +1,255 @@
+package org.mangorage.bootstrap.internal.loader;
+
+import org.mangorage.bootstrap.api.transformer.IClassTransformer;
+import org.mangorage.bootstrap.api.transformer.TransformResult;
+import org.mangorage.bootstrap.api.transformer.TransformerFlag;
+import org.mangorage.bootstrap.api.transformer.TransformerTargets;
+import org.mangorage.bootstrap.internal.metrics.BootstrapMetrics;
+import org.mangorage.bootstrap.internal.metrics.TransformerMetrics;
+
+import java.nio.BufferUnderflowException;
+import java.nio.ByteBuffer;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Runs an ordered chain of {@link IClassTransformer}s over a class.
+ * <p>
+ * Each transformer receives the output of the previous one. Until a transformer rewrites the class, the chain works on
+ * the buffer the loader read, and transformers overriding the {@code ByteBuffer} variant see it without any copy. The
+ * first transformer wanting a {@code byte[]} gets a heap copy, which the transformers after it share. Either way a
+ * transformer returning {@link TransformerFlag#NO_REWRITE} costs nothing beyond its own call.
+ * <p>
+ * A class only visits the transformers whose {@link TransformerTargets} match it. Exact class targets are indexed
+ * by name up front; which package and catch-all targets apply is worked out once per package and then cached, so
+ * picking the transformers for a class is at most two map lookups.
+ * <p>
+ * Each call is timed into the {@link TransformerMetrics} of the transformer's name, unless metrics are disabled.
+ */
+final class TransformerPipeline {
+    private static final int[] NONE = new int[0];
+
+    private final IClassTransformer[] transformers;
+    private final TransformerTargets[] targets;
+    private final boolean[] bufferAware;
+    private final TransformerMetrics[] metrics;
+    private final TransformerHistory history;
+    private final String fingerprint;
+
+    private final Map<String, int[]> classDispatch = new HashMap<>();
+    private final Map<String, int[]> packageDispatch = new ConcurrentHashMap<>();
+
+    TransformerPipeline(List<IClassTransformer> transformers, TransformerHistory history) {
+        this.transformers = transformers.toArray(IClassTransformer[]::new);
+        this.targets = new TransformerTargets[this.transformers.length];
+        this.bufferAware = new boolean[this.transformers.length];
+        this.metrics = new TransformerMetrics[this.transformers.length];
+        this.history = history;
+        this.fingerprint = fingerprint(transformers);
+
+        final Map<String, List<Integer>> classTargets = new HashMap<>();
+        for (int i = 0; i < this.transformers.length; i++) {
+            targets[i] = this.transformers[i].getTargets();
+            bufferAware[i] = overridesBufferVariant(this.transformers[i]);
+            metrics[i] = BootstrapMetrics.transformer(this.transformers[i].getName());
+            for (String className : targets[i].getClasses()) {
+                classTargets.computeIfAbsent(className, key -> new ArrayList<>()).add(i);
+            }
+        }
+        classTargets.forEach((className, indexes) -> classDispatch.put(className, indexes.stream().mapToInt(Integer::intValue).toArray()));
+    }
+
+    private static boolean overridesBufferVariant(IClassTransformer transformer) {
+        try {
+            return transformer.getClass().getMethod("transform", String.class, ByteBuffer.class).getDeclaringClass() != IClassTransformer.class;
+        } catch (NoSuchMethodException e) {
+            return false;
+        }
+    }
+
+    private int[] compilePackage(String packageName) {
+        int count = 0;
+        final int[] indexes = new int[transformers.length];
+        for (int i = 0; i < transformers.length; i++) {
+            if (targets[i].matchesPackage(packageName)) indexes[count++] = i;
+        }
+        return count == 0 ? NONE : Arrays.copyOf(indexes, count);
+    }
+
+    /**
+     * The transformers to run for a class, as ascending indexes into the chain.
+     */
+    int[] dispatch(String className, String packageName) {
+        final int[] byPackage = packageDispatch.computeIfAbsent(packageName, this::compilePackage);
+        final int[] byClass = classDispatch.get(className);
+        return byClass == null ? byPackage : merge(byPackage, byClass);
+    }
+
+    private static int[] merge(int[] a, int[] b) {
+        final int[] merged = new int[a.length + b.length];
+        int i = 0, j = 0, count = 0;
+        while (i < a.length || j < b.length) {
+            final int next;
+            if (j >= b.length || (i < a.length && a[i] < b[j])) next = a[i++];
+            else if (i >= a.length || b[j] < a[i]) next = b[j++];
+            else { next = a[i++]; j++; }
+            merged[count++] = next;
+        }
+        return count == merged.length ? merged : Arrays.copyOf(merged, count);
+    }
+
+    private static String fingerprint(List<IClassTransformer> transformers) {
+        final StringBuilder builder = new StringBuilder();
+        for (IClassTransformer transformer : transformers) {
+            final String version = transformer.getVersion();
+            if (version == null) return null;
+            builder.append(transformer.getName()).append('\0').append(version).append('\n');
+        }
+        return builder.toString();
+    }
+
+    /**
+     * Identifies the chain for {@link TransformedClassCache}: every transformer's name and version, in order.
+     *
+     * @return the fingerprint, or {@code null} if some transformer has no version and the chain can't be cached
+     */
+    String getFingerprint() {
+        return fingerprint;
+    }
+
+    boolean isEmpty() {
+        return transformers.length == 0;
+    }
+
+    /**
+     * @return {@code classData} itself if no transformer rewrote the class
+     */
+    ByteBuffer transform(String className, String packageName, ByteBuffer classData) {
+        return transform(className, packageName, classData, null);
+    }
+
+    /**
+     * @param rewrites receives the steps that rewrote the class when history is enabled, or {@code null}
+     * @return {@code classData} itself if no transformer rewrote the class
+     */
+    ByteBuffer transform(String className, String packageName, ByteBuffer classData, List<TransformerHistory.Step> rewrites) {
+        byte[] array = null; // Heap copy or latest rewrite, once some transformer needed one
+        boolean rewritten = false;
+        List<TransformerHistory.Step> steps = null;
+
+        for (int index : dispatch(className, packageName)) {
+            final IClassTransformer transformer = transformers[index];
+            if (array == null && !bufferAware[index]) array = toArray(classData);
+
+            final TransformerMetrics timer = metrics[index];
+            final long start = timer == null ? 0 : System.nanoTime();
+
+            final TransformResult result;
+            try {
+                result = array == null
+                        ? transformer.transform(className, classData.duplicate())
+                        : transformer.transform(className, array);
+            } catch (RuntimeException e) {
+                if (timer != null) timer.recordFailure(System.nanoTime() - start);
+                throw new IllegalStateException("Transformer " + transformer.getName() + " failed on " + className, e);
+            }
+
+            final boolean rewrote = result != null && result.flag() != TransformerFlag.NO_REWRITE && result.classData() != null;
+            if (timer != null) timer.recordCall(System.nanoTime() - start, rewrote);
+            if (!rewrote) continue;
+
+            if (history.isEnabled()) {
+                if (steps == null) steps = new ArrayList<>(2);
+                steps.add(new TransformerHistory.Step(transformer, result.flag(), array != null ? array : toArray(classData), result.classData()));
+            }
+            array = result.classData();
+            rewritten = true;
+        }
+
+        if (steps != null) {
+            history.record(className, steps);
+            if (rewrites != null) rewrites.addAll(steps);
+        }
+        return rewritten ? ByteBuffer.wrap(array) : classData;
+    }
+
+    /**
+     * Encodes steps for {@link TransformedClassCache}: the count, then per step the transformer's index in the chain
+     * and its flag, and the output of every step but the last, which is the cached class itself. The input of the
+     * first step is the original class, so single-step rewrites cost a few bytes.
+     */
+    byte[] encodeSteps(List<TransformerHistory.Step> steps) {
+        int size = Integer.BYTES;
+        for (int i = 0; i < steps.size(); i++) {
+            size += Integer.BYTES + 1 + (i < steps.size() - 1 ? Integer.BYTES + steps.get(i).output().length : 0);
+        }
+
+        final ByteBuffer out = ByteBuffer.allocate(size);
+        out.putInt(steps.size());
+        for (int i = 0; i < steps.size(); i++) {
+            final TransformerHistory.Step step = steps.get(i);
+            out.putInt(indexOf(step.transformer()));
+            out.put((byte) step.flag().ordinal());
+            if (i < steps.size() - 1) out.putInt(step.output().length).put(step.output());
+        }
+        return out.array();
+    }
+
+    private int indexOf(IClassTransformer transformer) {
+        for (int i = 0; i < transformers.length; i++) {
+            if (transformers[i] == transformer) return i;
+        }
+        throw new IllegalArgumentException("Transformer " + transformer.getName() + " isn't part of the chain");
+    }
+
+    /**
+     * Records the history of a class served from {@link TransformedClassCache} as if the chain had just run.
+     *
+     * @param steps as written by {@link #encodeSteps(List)}, or empty if the chain left the class untouched
+     * @return {@code false} if the steps don't fit this chain
+     */
+    boolean restoreHistory(String className, ByteBuffer original, ByteBuffer transformed, byte[] steps) {
+        if (!history.isEnabled() || steps.length == 0) return true;
+
+        final TransformerFlag[] flags = TransformerFlag.values();
+        final List<TransformerHistory.Step> restored = new ArrayList<>(2);
+        try {
+            final ByteBuffer in = ByteBuffer.wrap(steps);
+            final int count = in.getInt();
+
+            byte[] input = count == 0 ? null : toArray(original);
+            for (int i = 0; i < count; i++) {
+                final int index = in.getInt();
+                final int flag = in.get();
+                if (index < 0 || index >= transformers.length || flag < 0 || flag >= flags.length) return false;
+
+                final byte[] output;
+                if (i < count - 1) {
+                    output = new byte[in.getInt()];
+                    in.get(output);
+                } else {
+                    output = toArray(transformed);
+                }
+
+                restored.add(new TransformerHistory.Step(transformers[index], flags[flag], input, output));
+                input = output;
+            }
+            if (in.hasRemaining()) return false;
+        } catch (BufferUnderflowException | NegativeArraySizeException e) {
+            return false;
+        }
+
+        history.record(className, restored);
+        return true;
+    }
+
+    static byte[] toArray(ByteBuffer buffer) {
+        final byte[] bytes = new byte[buffer.remaining()];
+        buffer.duplicate().get(bytes);
+        return bytes;
+    }
+}
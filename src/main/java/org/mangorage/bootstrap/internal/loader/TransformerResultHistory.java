@@ -0,0 +1,12 @@
+package org.mangorage.bootstrap.internal.loader;
+
+import org.mangorage.bootstrap.api.transformer.ITransformerResultHistory;
+import org.mangorage.bootstrap.api.transformer.TransformerFlag;
+
+/**
+ * One transformer's step on a class: the bytes it was given and the bytes it produced.
+ */
+record TransformerResultHistory(byte[] classData, ITransformerResultHistory previous,
+                                Class<?> transformer, String transformerName,
+                                TransformerFlag transformerFlag, byte[] transformerResult) implements ITransformerResultHistory {
+}
@@ -0,0 +1,489 @@
+package org.mangorage.bootstrap.internal.loader;
+
+import org.mangorage.bootstrap.api.loader.IMangoLoader;
+import org.mangorage.bootstrap.api.module.IModuleConfigurator;
+import org.mangorage.bootstrap.api.transformer.IClassTransformer;
+import org.mangorage.bootstrap.api.transformer.IClassTransformerHistory;
+import org.mangorage.bootstrap.internal.metrics.BootstrapMetrics;
+import org.mangorage.bootstrap.internal.metrics.ClassLoadingMetrics;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.lang.module.Configuration;
+import java.lang.module.ModuleDescriptor;
+import java.lang.module.ModuleReader;
+import java.lang.module.ModuleReference;
+import java.lang.module.ResolvedModule;
+import java.net.MalformedURLException;
+import java.net.URI;
+import java.net.URL;
+import java.nio.ByteBuffer;
+import java.security.CodeSource;
+import java.security.ProtectionDomain;
+import java.security.cert.Certificate;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Deque;
+import java.util.Enumeration;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Function;
+import java.util.stream.Stream;
+
+/**
+ * Class loader for the modules of a {@link ModuleLayer}, running every class through a {@link TransformerPipeline}
+ * before defining it.
+ * <p>
+ * Delegation follows the module graph rather than the parent chain: packages of the modules defined here are loaded
+ * locally, packages exported by modules these read are loaded by those modules' loaders, and only what is left goes
+ * to the parent. The loader is parallel capable, so threads loading different classes never wait on each other.
+ */
+public final class TransformingClassLoader extends ClassLoader implements IMangoLoader {
+
+    static {
+        ClassLoader.registerAsParallelCapable();
+    }
+
+    private final Map<String, ModuleReference> localModules = new LinkedHashMap<>();
+    private final Map<String, ModuleReference> localPackages = new HashMap<>();
+    private final Map<String, ClassLoader> remotePackages = new HashMap<>();
+
+    private final Map<ModuleReference, ModuleReader> readers = new ConcurrentHashMap<>();
+    private final Map<ModuleReference, ProtectionDomain> protectionDomains = new ConcurrentHashMap<>();
+
+    private final TransformerHistory history;
+    private ResourceIndex resources;
+
+    // Filled by ClassWarmup ahead of demand, UNCHANGED marks classes no transformer rewrites
+    private static final ByteBuffer UNCHANGED = ByteBuffer.allocate(0);
+    private final Map<String, ByteBuffer> staged = new ConcurrentHashMap<>();
+    private volatile Set<String> definedClasses;
+    private final TransformerPipeline pipeline;
+    private final TransformedClassCache cache;
+
+    /**
+     * @param cache cache for transformed classes, or {@code null} to always run the transformers
+     * @param retention how much of the transformer history to keep
+     */
+    TransformingClassLoader(String name, Collection<ResolvedModule> modules, ClassLoader parent,
+                            List<IClassTransformer> transformers, TransformedClassCache cache, HistoryRetention retention) {
+        super(name, parent);
+        this.history = new TransformerHistory(retention);
+        this.pipeline = new TransformerPipeline(transformers, history);
+        this.cache = pipeline.isEmpty() || pipeline.getFingerprint() == null ? null : cache;
+
+        for (ResolvedModule module : modules) {
+            final ModuleReference reference = module.reference();
+            localModules.put(module.name(), reference);
+            reference.descriptor().packages().forEach(pkg -> localPackages.put(pkg, reference));
+        }
+    }
+
+    /**
+     * Maps the packages that our modules can read from other modules to the loaders of those modules.
+     * Must be called before any class is loaded.
+     *
+     * @param siblingLoaders loaders of the modules in {@code configuration} not defined to this loader
+     */
+    void initRemotePackageMap(Configuration configuration, List<ModuleLayer> parentLayers, Function<String, ClassLoader> siblingLoaders) {
+        for (String moduleName : localModules.keySet()) {
+            final ResolvedModule resolved = configuration.findModule(moduleName)
+                    .orElseThrow(() -> new IllegalArgumentException("Module " + moduleName + " isn't part of the configuration"));
+
+            for (ResolvedModule other : resolved.reads()) {
+                if (localModules.containsKey(other.name()) && other.configuration() == configuration) continue;
+
+                final ClassLoader loader = other.configuration() == configuration
+                        ? siblingLoaders.apply(other.name())
+                        : findLoader(parentLayers, other);
+
+                final ModuleDescriptor descriptor = other.reference().descriptor();
+                if (descriptor.isAutomatic()) {
+                    descriptor.packages().forEach(pkg -> mapRemotePackage(pkg, loader));
+                } else {
+                    descriptor.exports().stream()
+                            .filter(export -> !export.isQualified() || export.targets().contains(moduleName))
+                            .forEach(export -> mapRemotePackage(export.source(), loader));
+                }
+            }
+        }
+    }
+
+    private void mapRemotePackage(String pkg, ClassLoader loader) {
+        if (localPackages.containsKey(pkg)) return;
+
+        final ClassLoader existing = remotePackages.putIfAbsent(pkg, loader);
+        if (existing != null && existing != loader) {
+            throw new IllegalStateException("Package " + pkg + " is mapped to two loaders, " + existing + " and " + loader);
+        }
+    }
+
+    /**
+     * Indexes the resources of our modules, making resource lookups by module also search the module's children.
+     * Must be called before any resource is looked up.
+     */
+    void initResourceIndex(IModuleConfigurator configurator) {
+        this.resources = ResourceIndex.build(localModules, this::getReader, configurator);
+    }
+
+    private static ClassLoader findLoader(List<ModuleLayer> parentLayers, ResolvedModule module) {
+        final Deque<ModuleLayer> pending = new ArrayDeque<>(parentLayers);
+        final Set<ModuleLayer> visited = new HashSet<>();
+
+        while (!pending.isEmpty()) {
+            final ModuleLayer layer = pending.poll();
+            if (!visited.add(layer)) continue;
+
+            if (layer.configuration() == module.configuration()) {
+                final ClassLoader loader = layer.findLoader(module.name());
+                // Boot modules have no loader object, the platform loader delegates to the boot loader for them
+                return loader != null ? loader : ClassLoader.getPlatformClassLoader();
+            }
+            pending.addAll(layer.parents());
+        }
+
+        throw new IllegalStateException("No parent layer contains module " + module.name());
+    }
+
+    // ----- IMangoLoader -----
+
+    @Override
+    public IClassTransformerHistory getTransformerHistory() {
+        return history;
+    }
+
+    /**
+     * @return the untransformed bytes of the class, or {@code null} if no module of this loader contains it
+     */
+    @Override
+    public byte[] getClassBytes(String name) {
+        final ByteBuffer buffer = getClassBuffer(name);
+        return buffer == null ? null : TransformerPipeline.toArray(buffer);
+    }
+
+    /**
+     * @return the untransformed class, a view of the mapped jar for stored entries, or {@code null} if no module of
+     * this loader contains it
+     */
+    @Override
+    public ByteBuffer getClassBuffer(String name) {
+        final ModuleReference reference = localPackages.get(packageName(name));
+        if (reference == null) return null;
+
+        try {
+            final ByteBuffer buffer = readClass(reference, name);
+            return buffer == null ? null : buffer.asReadOnlyBuffer();
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    @Override
+    public boolean hasClass(String name) {
+        final ModuleReference reference = localPackages.get(packageName(name));
+        if (reference == null) return false;
+
+        try {
+            return getReader(reference).find(toResourceName(name)).isPresent();
+        } catch (IOException e) {
+            return false;
+        }
+    }
+
+    // ----- class loading -----
+
+    @Override
+    protected Class<?> loadClass(String name, boolean resolve) throws ClassNotFoundException {
+        synchronized (getClassLoadingLock(name)) {
+            Class<?> c = findLoadedClass(name);
+
+            if (c == null) {
+                final String pkg = packageName(name);
+                final ModuleReference reference = localPackages.get(pkg);
+
+                if (reference != null) {
+                    c = defineModuleClass(reference, name);
+                } else {
+                    final ClassLoader remote = remotePackages.get(pkg);
+                    if (remote != null) {
+                        c = remote.loadClass(name);
+                    } else if (getParent() != null) {
+                        c = getParent().loadClass(name);
+                    }
+                }
+            }
+
+            if (c == null) throw new ClassNotFoundException(name);
+            if (resolve) resolveClass(c);
+            return c;
+        }
+    }
+
+    @Override
+    protected Class<?> findClass(String name) throws ClassNotFoundException {
+        final ModuleReference reference = localPackages.get(packageName(name));
+        Class<?> c = null;
+        if (reference != null) {
+            synchronized (getClassLoadingLock(name)) {
+                c = findLoadedClass(name);
+                if (c == null) c = defineModuleClass(reference, name);
+            }
+        }
+
+        if (c == null) throw new ClassNotFoundException(name);
+        return c;
+    }
+
+    @Override
+    protected Class<?> findClass(String moduleName, String name) {
+        final ModuleReference reference = localPackages.get(packageName(name));
+        if (reference == null || !reference.descriptor().name().equals(moduleName)) return null;
+
+        synchronized (getClassLoadingLock(name)) {
+            final Class<?> c = findLoadedClass(name);
+            return c != null ? c : defineModuleClass(reference, name);
+        }
+    }
+
+    /**
+     * Reads, transforms and defines a class of one of our modules. Caller holds the class loading lock.
+     *
+     * @return the class, or {@code null} if the module doesn't contain it
+     */
+    private Class<?> defineModuleClass(ModuleReference reference, String name) {
+        final ClassLoadingMetrics metrics = BootstrapMetrics.classLoading();
+        if (metrics == null) return readAndDefineClass(reference, name);
+
+        final long start = System.nanoTime();
+        final Class<?> c = readAndDefineClass(reference, name);
+        if (c != null) metrics.recordDefined(reference.descriptor().name(), System.nanoTime() - start);
+        return c;
+    }
+
+    private Class<?> readAndDefineClass(ModuleReference reference, String name) {
+        final Set<String> recording = definedClasses;
+        if (recording != null) recording.add(name);
+
+        final ByteBuffer prepared = staged.isEmpty() ? null : staged.remove(name);
+        if (prepared != null && prepared != UNCHANGED) return defineClass(name, prepared, getProtectionDomain(reference));
+
+        final ModuleReader reader;
+        final Optional<ByteBuffer> original;
+        try {
+            reader = getReader(reference);
+            original = reader.read(toResourceName(name));
+        } catch (IOException e) {
+            throw new UncheckedIOException("Couldn't read " + name + " from " + reference.descriptor().name(), e);
+        }
+        if (original.isEmpty()) return null;
+
+        try {
+            final ByteBuffer data = prepared == UNCHANGED ? original.get() : transform(name, original.get());
+            return defineClass(name, data, getProtectionDomain(reference));
+        } finally {
+            reader.release(original.get());
+        }
+    }
+
+    private ByteBuffer transform(String name, ByteBuffer original) {
+        if (pipeline.isEmpty()) return original;
+
+        final String pkg = packageName(name);
+        if (pipeline.dispatch(name, pkg).length == 0) return original; // No transformer targets this class
+        if (cache == null) return pipeline.transform(name, pkg, original);
+
+        final String key = TransformedClassCache.key(name, original, pipeline.getFingerprint());
+        final TransformedClassCache.Hit hit = cache.get(key, original);
+        if (hit != null) {
+            // Entries stored while history was off don't have the steps, those classes run the chain again
+            if (!history.isEnabled()) return hit.data();
+            if (hit.steps() != null && pipeline.restoreHistory(name, original, hit.data(), hit.steps())) return hit.data();
+        }
+
+        final List<TransformerHistory.Step> steps = history.isEnabled() ? new ArrayList<>(2) : null;
+        final ByteBuffer transformed = pipeline.transform(name, pkg, original, steps);
+        cache.put(key, original, transformed, steps == null ? null : pipeline.encodeSteps(steps));
+        return transformed;
+    }
+
+    // ----- warm-up -----
+
+    /**
+     * Runs the transformers over a class ahead of demand and keeps the result until the class is loaded.
+     *
+     * @return whether anything was staged, {@code false} if the class is already loaded, not ours, or not targeted
+     */
+    boolean stage(String name) throws IOException {
+        if (pipeline.isEmpty()) return false;
+
+        final ModuleReference reference = localPackages.get(packageName(name));
+        if (reference == null || pipeline.dispatch(name, packageName(name)).length == 0) return false;
+
+        // Under the lock a load of the same class either already defined it, or waits and then uses what we stage
+        synchronized (getClassLoadingLock(name)) {
+            if (findLoadedClass(name) != null) return false;
+
+            final ByteBuffer original = readClass(reference, name);
+            if (original == null) return false;
+
+            final ByteBuffer transformed = transform(name, original);
+            staged.put(name, transformed == original ? UNCHANGED : transformed);
+            return true;
+        }
+    }
+
+    /**
+     * Drops the staged classes that were never loaded, so their buffers don't stay reachable for the loader's lifetime.
+     *
+     * @return how many were dropped
+     */
+    int discardStaged() {
+        final int discarded = staged.size();
+        staged.clear();
+        return discarded;
+    }
+
+    /**
+     * Names of every class in this loader's modules.
+     */
+    List<String> listClasses() throws IOException {
+        final List<String> classes = new ArrayList<>();
+        for (ModuleReference reference : localModules.values()) {
+            try (Stream<String> entries = getReader(reference).list()) {
+                entries.filter(entry -> entry.endsWith(".class") && !entry.endsWith("module-info.class") && !entry.startsWith("META-INF/"))
+                        .map(entry -> entry.substring(0, entry.length() - ".class".length()).replace('/', '.'))
+                        .filter(className -> localPackages.containsKey(packageName(className)))
+                        .forEach(classes::add);
+            }
+        }
+        return classes;
+    }
+
+    boolean ownsClass(String name) {
+        return localPackages.containsKey(packageName(name));
+    }
+
+    /**
+     * Starts remembering which classes get defined, see {@link #getDefinedClasses()}.
+     */
+    void recordDefinedClasses() {
+        if (definedClasses == null) definedClasses = ConcurrentHashMap.newKeySet();
+    }
+
+    Set<String> getDefinedClasses() {
+        final Set<String> recording = definedClasses;
+        return recording == null ? Set.of() : Set.copyOf(recording);
+    }
+
+    private ByteBuffer readClass(ModuleReference reference, String name) throws IOException {
+        return getReader(reference).read(toResourceName(name)).orElse(null);
+    }
+
+    private ModuleReader getReader(ModuleReference reference) throws IOException {
+        final ModuleReader reader = readers.get(reference);
+        if (reader != null) return reader;
+
+        try {
+            return readers.computeIfAbsent(reference, ref -> {
+                try {
+                    return ref.open();
+                } catch (IOException e) {
+                    throw new UncheckedIOException(e);
+                }
+            });
+        } catch (UncheckedIOException e) {
+            throw e.getCause();
+        }
+    }
+
+    private ProtectionDomain getProtectionDomain(ModuleReference reference) {
+        return protectionDomains.computeIfAbsent(reference, ref -> {
+            URL location = null;
+            try {
+                location = ref.location().isPresent() ? ref.location().get().toURL() : null;
+            } catch (MalformedURLException | IllegalArgumentException ignored) {
+                // Not every module location is a URL, the class just won't have a code source location
+            }
+            return new ProtectionDomain(new CodeSource(location, (Certificate[]) null), null, this, null);
+        });
+    }
+
+    // ----- resources -----
+
+    /**
+     * Looks in the module and, once the resource index is set up, in its {@link IModuleConfigurator#getChildren(String) children}.
+     */
+    @Override
+    protected URL findResource(String moduleName, String name) throws IOException {
+        if (resources != null) return toURL(Optional.ofNullable(resources.find(moduleName, name, this::getReader)));
+
+        final ModuleReference reference = localModules.get(moduleName);
+        if (reference == null) return null;
+
+        return toURL(getReader(reference).find(name));
+    }
+
+    /**
+     * Like the JDK's loaders, finds resources outside the modules' packages, class files, and resources in packages
+     * opened to everyone. Anything else is encapsulated and only found through its module.
+     */
+    @Override
+    protected URL findResource(String name) {
+        for (ModuleReference reference : candidates(name)) {
+            try {
+                final URL url = toURL(getReader(reference).find(name));
+                if (url != null && isVisible(reference, name, url)) return url;
+            } catch (IOException ignored) {
+                // Same as a missing resource, the other modules may still have it
+            }
+        }
+        return null;
+    }
+
+    @Override
+    protected Enumeration<URL> findResources(String name) throws IOException {
+        final List<URL> urls = new ArrayList<>();
+        for (ModuleReference reference : candidates(name)) {
+            final URL url = toURL(getReader(reference).find(name));
+            if (url != null && isVisible(reference, name, url)) urls.add(url);
+        }
+        return Collections.enumeration(urls);
+    }
+
+    private static boolean isVisible(ModuleReference reference, String name, URL url) {
+        final int slash = name.lastIndexOf('/');
+        if (slash <= 0 || slash == name.length() - 1) return true;
+
+        final String pkg = name.substring(0, slash).replace('/', '.');
+        final ModuleDescriptor descriptor = reference.descriptor();
+        if (!descriptor.packages().contains(pkg) || name.endsWith(".class") || url.toString().endsWith("/")) return true;
+
+        return descriptor.isOpen() || descriptor.isAutomatic() || descriptor.opens().stream()
+                .anyMatch(opens -> !opens.isQualified() && opens.source().equals(pkg));
+    }
+
+    private Collection<ModuleReference> candidates(String name) {
+        return resources != null ? resources.findOwners(name) : localModules.values();
+    }
+
+    private static URL toURL(Optional<URI> uri) throws MalformedURLException {
+        return uri.isPresent() ? uri.get().toURL() : null;
+    }
+
+    private static String packageName(String className) {
+        final int index = className.lastIndexOf('.');
+        return index < 0 ? "" : className.substring(0, index);
+    }
+
+    private static String toResourceName(String className) {
+        return className.replace('.', '/') + ".class";
+    }
+}
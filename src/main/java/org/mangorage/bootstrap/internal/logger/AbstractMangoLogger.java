@@ -0,0 +1,314 @@
+package org.mangorage.bootstrap.internal.logger;
+
+import org.mangorage.bootstrap.api.logging.IMangoLogger;
+import org.mangorage.bootstrap.api.logging.MessageFormatter;
+import org.mangorage.bootstrap.internal.metrics.BootstrapMetrics;
+import org.mangorage.bootstrap.internal.metrics.LoggingMetrics;
+
+import java.util.function.Supplier;
+
+/**
+ * Base for the built-in loggers. Every logging method funnels into {@link #isEnabled(LogLevel)}
+ * and one of the two {@code log} methods, so implementations only decide where events go.
+ * Events that pass the level check are counted in the {@link LoggingMetrics} of the logger's provider.
+ */
+public abstract class AbstractMangoLogger implements IMangoLogger {
+
+    private final String name;
+    private final LoggingMetrics metrics;
+
+    /**
+     * Creates a logger whose events aren't counted, for loggers that don't come from a provider.
+     */
+    protected AbstractMangoLogger(String name) {
+        this.name = name;
+        this.metrics = null;
+    }
+
+    protected AbstractMangoLogger(String name, String providerName) {
+        this.name = name;
+        this.metrics = BootstrapMetrics.logging(providerName);
+    }
+
+    protected abstract boolean isEnabled(LogLevel level);
+
+    private boolean accept(LogLevel level) {
+        if (!isEnabled(level)) return false;
+        if (metrics != null) metrics.recordEvent(level);
+        return true;
+    }
+
+    protected abstract void log(LogLevel level, String message, Throwable throwable);
+
+    /**
+     * Logs a varargs message, see {@link MessageFormatter}. Only called for enabled levels.
+     */
+    protected void logFormatted(LogLevel level, String format, Object[] args) {
+        log(level, MessageFormatter.format(format, args), null);
+    }
+
+    /**
+     * Logs a message with up to three arguments, see {@link MessageFormatter}. Only called for enabled levels.
+     */
+    protected void logParameterized(LogLevel level, String template, int argCount, Object arg1, Object arg2, Object arg3) {
+        log(level, format(template, argCount, arg1, arg2, arg3), null);
+    }
+
+    static String format(String template, int argCount, Object arg1, Object arg2, Object arg3) {
+        return switch (argCount) {
+            case 0 -> template;
+            case 1 -> MessageFormatter.format(template, arg1);
+            case 2 -> MessageFormatter.format(template, arg1, arg2);
+            default -> MessageFormatter.format(template, arg1, arg2, arg3);
+        };
+    }
+
+    @Override
+    public void trace(String message) {
+        if (accept(LogLevel.TRACE)) log(LogLevel.TRACE, message, null);
+    }
+
+    @Override
+    public void trace(String message, Object... args) {
+        if (accept(LogLevel.TRACE)) logFormatted(LogLevel.TRACE, message, args);
+    }
+
+    @Override
+    public void trace(String message, Throwable throwable) {
+        if (accept(LogLevel.TRACE)) log(LogLevel.TRACE, message, throwable);
+    }
+
+    @Override
+    public void trace(String message, Object arg) {
+        if (accept(LogLevel.TRACE)) logParameterized(LogLevel.TRACE, message, 1, arg, null, null);
+    }
+
+    @Override
+    public void trace(String message, Object arg1, Object arg2) {
+        if (accept(LogLevel.TRACE)) logParameterized(LogLevel.TRACE, message, 2, arg1, arg2, null);
+    }
+
+    @Override
+    public void trace(String message, Object arg1, Object arg2, Object arg3) {
+        if (accept(LogLevel.TRACE)) logParameterized(LogLevel.TRACE, message, 3, arg1, arg2, arg3);
+    }
+
+    @Override
+    public void trace(Supplier<String> message) {
+        if (accept(LogLevel.TRACE)) log(LogLevel.TRACE, message.get(), null);
+    }
+
+    @Override
+    public void debug(String message) {
+        if (accept(LogLevel.DEBUG)) log(LogLevel.DEBUG, message, null);
+    }
+
+    @Override
+    public void debug(String message, Object... args) {
+        if (accept(LogLevel.DEBUG)) logFormatted(LogLevel.DEBUG, message, args);
+    }
+
+    @Override
+    public void debug(String message, Throwable throwable) {
+        if (accept(LogLevel.DEBUG)) log(LogLevel.DEBUG, message, throwable);
+    }
+
+    @Override
+    public void debug(String message, Object arg) {
+        if (accept(LogLevel.DEBUG)) logParameterized(LogLevel.DEBUG, message, 1, arg, null, null);
+    }
+
+    @Override
+    public void debug(String message, Object arg1, Object arg2) {
+        if (accept(LogLevel.DEBUG)) logParameterized(LogLevel.DEBUG, message, 2, arg1, arg2, null);
+    }
+
+    @Override
+    public void debug(String message, Object arg1, Object arg2, Object arg3) {
+        if (accept(LogLevel.DEBUG)) logParameterized(LogLevel.DEBUG, message, 3, arg1, arg2, arg3);
+    }
+
+    @Override
+    public void debug(Supplier<String> message) {
+        if (accept(LogLevel.DEBUG)) log(LogLevel.DEBUG, message.get(), null);
+    }
+
+    @Override
+    public void info(String message) {
+        if (accept(LogLevel.INFO)) log(LogLevel.INFO, message, null);
+    }
+
+    @Override
+    public void info(String message, Object... args) {
+        if (accept(LogLevel.INFO)) logFormatted(LogLevel.INFO, message, args);
+    }
+
+    @Override
+    public void info(String message, Throwable throwable) {
+        if (accept(LogLevel.INFO)) log(LogLevel.INFO, message, throwable);
+    }
+
+    @Override
+    public void info(String message, Object arg) {
+        if (accept(LogLevel.INFO)) logParameterized(LogLevel.INFO, message, 1, arg, null, null);
+    }
+
+    @Override
+    public void info(String message, Object arg1, Object arg2) {
+        if (accept(LogLevel.INFO)) logParameterized(LogLevel.INFO, message, 2, arg1, arg2, null);
+    }
+
+    @Override
+    public void info(String message, Object arg1, Object arg2, Object arg3) {
+        if (accept(LogLevel.INFO)) logParameterized(LogLevel.INFO, message, 3, arg1, arg2, arg3);
+    }
+
+    @Override
+    public void info(Supplier<String> message) {
+        if (accept(LogLevel.INFO)) log(LogLevel.INFO, message.get(), null);
+    }
+
+    @Override
+    public void warn(String message) {
+        if (accept(LogLevel.WARN)) log(LogLevel.WARN, message, null);
+    }
+
+    @Override
+    public void warn(String message, Object... args) {
+        if (accept(LogLevel.WARN)) logFormatted(LogLevel.WARN, message, args);
+    }
+
+    @Override
+    public void warn(String message, Throwable throwable) {
+        if (accept(LogLevel.WARN)) log(LogLevel.WARN, message, throwable);
+    }
+
+    @Override
+    public void warn(String message, Object arg) {
+        if (accept(LogLevel.WARN)) logParameterized(LogLevel.WARN, message, 1, arg, null, null);
+    }
+
+    @Override
+    public void warn(String message, Object arg1, Object arg2) {
+        if (accept(LogLevel.WARN)) logParameterized(LogLevel.WARN, message, 2, arg1, arg2, null);
+    }
+
+    @Override
+    public void warn(String message, Object arg1, Object arg2, Object arg3) {
+        if (accept(LogLevel.WARN)) logParameterized(LogLevel.WARN, message, 3, arg1, arg2, arg3);
+    }
+
+    @Override
+    public void warn(Supplier<String> message) {
+        if (accept(LogLevel.WARN)) log(LogLevel.WARN, message.get(), null);
+    }
+
+    @Override
+    public void error(String message) {
+        if (accept(LogLevel.ERROR)) log(LogLevel.ERROR, message, null);
+    }
+
+    @Override
+    public void error(String message, Object... args) {
+        if (accept(LogLevel.ERROR)) logFormatted(LogLevel.ERROR, message, args);
+    }
+
+    @Override
+    public void error(String message, Throwable throwable) {
+        if (accept(LogLevel.ERROR)) log(LogLevel.ERROR, message, throwable);
+    }
+
+    @Override
+    public void error(String message, Object arg) {
+        if (accept(LogLevel.ERROR)) logParameterized(LogLevel.ERROR, message, 1, arg, null, null);
+    }
+
+    @Override
+    public void error(String message, Object arg1, Object arg2) {
+        if (accept(LogLevel.ERROR)) logParameterized(LogLevel.ERROR, message, 2, arg1, arg2, null);
+    }
+
+    @Override
+    public void error(String message, Object arg1, Object arg2, Object arg3) {
+        if (accept(LogLevel.ERROR)) logParameterized(LogLevel.ERROR, message, 3, arg1, arg2, arg3);
+    }
+
+    @Override
+    public void error(Supplier<String> message) {
+        if (accept(LogLevel.ERROR)) log(LogLevel.ERROR, message.get(), null);
+    }
+
+    // Fun methods
+    @Override
+    public void rainbow(String message) {
+        info("🌈 " + message);
+    }
+
+    @Override
+    public void celebration(String message) {
+        info("🎉 " + message + " 🎉");
+    }
+
+    @Override
+    public void dramatic(String message) {
+        warn("🎭 *DRAMATIC* " + message.toUpperCase() + " *END SCENE* 🎭");
+    }
+
+    @Override
+    public void whisper(String message) {
+        debug("🤫 *whispers* " + message.toLowerCase());
+    }
+
+    @Override
+    public void shout(String message) {
+        warn("📢 " + message.toUpperCase() + "!!!");
+    }
+
+    @Override
+    public void withEmoji(String emoji, String message) {
+        info(emoji + " " + message);
+    }
+
+    @Override
+    public void withBorder(String message) {
+        String border = "=".repeat(Math.min(message.length() + 4, 80));
+        info("┌" + border + "┐");
+        info("│ " + message + " │");
+        info("└" + border + "┘");
+    }
+
+    @Override
+    public void withContext(String context, String message) {
+        info("[" + context + "] " + message);
+    }
+
+    @Override
+    public boolean isTraceEnabled() {
+        return isEnabled(LogLevel.TRACE);
+    }
+
+    @Override
+    public boolean isDebugEnabled() {
+        return isEnabled(LogLevel.DEBUG);
+    }
+
+    @Override
+    public boolean isInfoEnabled() {
+        return isEnabled(LogLevel.INFO);
+    }
+
+    @Override
+    public boolean isWarnEnabled() {
+        return isEnabled(LogLevel.WARN);
+    }
+
+    @Override
+    public boolean isErrorEnabled() {
+        return isEnabled(LogLevel.ERROR);
+    }
+
+    @Override
+    public String getName() {
+        return name;
+    }
+}
@@ -0,0 +1,67 @@
+package org.mangorage.bootstrap.internal.logger;
+
+import org.mangorage.bootstrap.api.logging.AbstractLoggerProvider;
+import org.mangorage.bootstrap.api.logging.IMangoLogger;
+
+import java.util.Locale;
+
+/**
+ * The {@code async} provider: JUL output written by a background thread through a {@link LogRingBuffer}.
+ *
+ * <p>Configured with system properties:
+ * <ul>
+ *   <li>{@code mangobot.bootstrap.logging.async.capacity} - ring buffer slots, rounded up to a power of two (default 8192)</li>
+ *   <li>{@code mangobot.bootstrap.logging.async.overflow} - {@link OverflowPolicy} when full (default {@code BLOCK})</li>
+ *   <li>{@code mangobot.bootstrap.logging.async.overflowLevel} - lowest {@link LogLevel} kept by {@code DROP_BELOW_LEVEL} (default {@code WARN})</li>
+ * </ul>
+ * The logger cache follows {@code mangobot.bootstrap.logging.cache}, see {@link DefaultLoggerProvider}.
+ *
+ * <p>The buffer and its drain thread are created on first use. A shutdown hook flushes every pending event before the JVM exits.
+ */
+public final class AsyncLoggerProvider extends AbstractLoggerProvider {
+    public static final AsyncLoggerProvider INSTANCE = new AsyncLoggerProvider("async");
+
+    private static final String PROPERTY_PREFIX = "mangobot.bootstrap.logging.async.";
+
+    private volatile LogRingBuffer ringBuffer;
+
+    AsyncLoggerProvider(String name) {
+        super(name, DefaultLoggerProvider.getConfiguredCacheMode());
+    }
+
+    @Override
+    protected IMangoLogger createLogger(String name) {
+        return new AsyncMangoLogger(name, getName(), getRingBuffer());
+    }
+
+    /**
+     * Waits until every event logged so far has been written.
+     */
+    public void flush() {
+        final LogRingBuffer buffer = ringBuffer;
+        if (buffer != null) buffer.flush();
+    }
+
+    public long getDroppedCount() {
+        final LogRingBuffer buffer = ringBuffer;
+        return buffer == null ? 0 : buffer.getDroppedCount();
+    }
+
+    private LogRingBuffer getRingBuffer() {
+        LogRingBuffer buffer = ringBuffer;
+        if (buffer != null) return buffer;
+
+        synchronized (this) {
+            if (ringBuffer == null) {
+                final int capacity = Integer.getInteger(PROPERTY_PREFIX + "capacity", 8192);
+                final OverflowPolicy policy = OverflowPolicy.valueOf(System.getProperty(PROPERTY_PREFIX + "overflow", "BLOCK").toUpperCase(Locale.ROOT));
+                final LogLevel level = LogLevel.valueOf(System.getProperty(PROPERTY_PREFIX + "overflowLevel", "WARN").toUpperCase(Locale.ROOT));
+
+                final LogRingBuffer created = new LogRingBuffer(capacity, policy, level);
+                Runtime.getRuntime().addShutdownHook(new Thread(created::close, "mango-async-logger-shutdown"));
+                ringBuffer = created;
+            }
+            return ringBuffer;
+        }
+    }
+}
@@ -0,0 +1,46 @@
+package org.mangorage.bootstrap.internal.logger;
+
+import java.util.logging.Logger;
+
+/**
+ * Logger that hands events to a {@link LogRingBuffer} instead of writing them on the caller's thread.
+ *
+ * <p>Level checks happen on the caller's thread. Messages with arguments are formatted on the drain thread,
+ * so they must not be mutated after being logged.
+ */
+public final class AsyncMangoLogger extends AbstractMangoLogger {
+
+    private final Logger delegate;
+    private final LogRingBuffer ringBuffer;
+
+    AsyncMangoLogger(String name, String providerName, LogRingBuffer ringBuffer) {
+        super(name, providerName);
+        this.delegate = Logger.getLogger(name);
+        this.ringBuffer = ringBuffer;
+    }
+
+    @Override
+    public <T> T unwrap(Class<T> loggerClass) throws UnsupportedOperationException {
+        return loggerClass.isInstance(delegate) ? loggerClass.cast(delegate) : null;
+    }
+
+    @Override
+    protected boolean isEnabled(LogLevel level) {
+        return delegate.isLoggable(level.getJulLevel());
+    }
+
+    @Override
+    protected void log(LogLevel level, String message, Throwable throwable) {
+        ringBuffer.publish(delegate, level, message, 0, null, null, null, null, throwable);
+    }
+
+    @Override
+    protected void logFormatted(LogLevel level, String format, Object[] args) {
+        ringBuffer.publish(delegate, level, format, 0, null, null, null, args, null);
+    }
+
+    @Override
+    protected void logParameterized(LogLevel level, String template, int argCount, Object arg1, Object arg2, Object arg3) {
+        ringBuffer.publish(delegate, level, template, argCount, arg1, arg2, arg3, null, null);
+    }
+}
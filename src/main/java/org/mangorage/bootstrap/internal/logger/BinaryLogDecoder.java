@@ -0,0 +1,149 @@
+package org.mangorage.bootstrap.internal.logger;
+
+import org.mangorage.bootstrap.api.logging.MessageFormatter;
+
+import java.io.IOException;
+import java.io.PrintStream;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Instant;
+import java.time.ZoneId;
+import java.time.format.DateTimeFormatter;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Stream;
+
+/**
+ * Turns the segments written by the {@code binary} provider back into text, one line per event followed by the stack
+ * trace of its throwable, if any. Messages are formatted with {@link MessageFormatter}, as the other providers do.
+ *
+ * <p><strong>Usage:</strong> {@code java -p <bootstrap jar> -m org.mangorage.bootstrap/org.mangorage.bootstrap.internal.logger.BinaryLogDecoder [segment or directory...]}
+ *
+ * <p>Directories are decoded segment by segment, oldest first. Without arguments the default directory
+ * {@code logs/binary} is decoded.
+ */
+public final class BinaryLogDecoder {
+    private static final DateTimeFormatter TIMESTAMP = DateTimeFormatter.ofPattern("yyyy-MM-dd HH:mm:ss.SSS").withZone(ZoneId.systemDefault());
+    private static final LogLevel[] LEVELS = LogLevel.values();
+
+    private BinaryLogDecoder() {
+    }
+
+    public static void main(String[] args) throws IOException {
+        final List<Path> paths = new ArrayList<>();
+        for (String arg : args.length == 0 ? new String[]{"logs/binary"} : args) paths.add(Path.of(arg));
+
+        for (Path path : paths) {
+            if (!Files.isDirectory(path)) {
+                decode(path, System.out);
+                continue;
+            }
+
+            final List<Path> segments;
+            try (Stream<Path> files = Files.list(path)) {
+                segments = files.filter(file -> BinaryLogWriter.segmentIndex(file) >= 0)
+                        .sorted(Comparator.comparingLong(BinaryLogWriter::segmentIndex))
+                        .toList();
+            }
+            for (Path segment : segments) decode(segment, System.out);
+        }
+        System.out.flush();
+    }
+
+    /**
+     * Writes the events of one segment as text.
+     *
+     * @throws IOException if the file can't be read or isn't a segment
+     */
+    public static void decode(Path segment, PrintStream out) throws IOException {
+        final ByteBuffer buffer;
+        try (FileChannel channel = FileChannel.open(segment)) {
+            buffer = channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+        }
+
+        if (buffer.remaining() < BinaryLogWriter.HEADER_SIZE || buffer.getInt() != BinaryLogWriter.MAGIC) {
+            throw new IOException(segment + " isn't a binary log segment");
+        }
+        final short version = buffer.getShort();
+        // Version 1 used a subset of the argument tags
+        if (version < 1 || version > BinaryLogWriter.VERSION) throw new IOException("Unsupported binary log version " + version + " in " + segment);
+        buffer.position(BinaryLogWriter.HEADER_SIZE);
+
+        // Ids are only unique within the process that wrote the segment
+        final Map<Integer, String> dictionary = new HashMap<>();
+        final StringBuilder line = new StringBuilder(256);
+
+        while (buffer.remaining() >= Integer.BYTES) {
+            final int length = buffer.getInt();
+            if (length <= 0 || length > buffer.remaining()) break; // End of the written records
+
+            final ByteBuffer record = buffer.slice(buffer.position(), length);
+            buffer.position(buffer.position() + length);
+
+            switch (record.get()) {
+                case BinaryLogWriter.DICTIONARY -> dictionary.put(record.getInt(), getString(record));
+                case BinaryLogWriter.EVENT -> {
+                    line.setLength(0);
+                    decodeEvent(record, dictionary, line);
+                    out.println(line);
+                }
+                default -> {
+                    // Record type of a newer writer, skip it
+                }
+            }
+        }
+    }
+
+    private static void decodeEvent(ByteBuffer record, Map<Integer, String> dictionary, StringBuilder line) {
+        final long timestamp = record.getLong();
+        final LogLevel level = LEVELS[record.get()];
+        final long threadId = record.getLong();
+        final String logger = getInterned(record, dictionary);
+        final String template = getInterned(record, dictionary);
+
+        final Object[] args = new Object[record.getInt()];
+        for (int i = 0; i < args.length; i++) args[i] = getArg(record);
+
+        final String thrown = record.get() != 0 ? getString(record) : null;
+
+        TIMESTAMP.formatTo(Instant.ofEpochMilli(timestamp), line);
+        line.append(' ').append(level).append(" [").append(threadId).append("] ").append(logger).append(" - ");
+        line.append(args.length == 0 ? template : MessageFormatter.format(template, args));
+        if (thrown != null) line.append(System.lineSeparator()).append(thrown.stripTrailing());
+    }
+
+    private static String getInterned(ByteBuffer record, Map<Integer, String> dictionary) {
+        final int id = record.getInt();
+        return id == BinaryLogWriter.INLINE ? getString(record) : dictionary.getOrDefault(id, "<unknown #" + id + ">");
+    }
+
+    private static Object getArg(ByteBuffer record) {
+        return switch (record.get()) {
+            case BinaryLogWriter.ARG_STRING -> getString(record);
+            case BinaryLogWriter.ARG_LONG -> record.getLong();
+            case BinaryLogWriter.ARG_INT -> record.getInt();
+            case BinaryLogWriter.ARG_SHORT -> (short) record.getInt();
+            case BinaryLogWriter.ARG_BYTE -> record.get();
+            case BinaryLogWriter.ARG_DOUBLE -> Double.longBitsToDouble(record.getLong());
+            case BinaryLogWriter.ARG_FLOAT -> Float.intBitsToFloat(record.getInt());
+            case BinaryLogWriter.ARG_CHAR -> (char) record.getInt();
+            case BinaryLogWriter.ARG_BOOLEAN -> record.get() != 0;
+            default -> null;
+        };
+    }
+
+    private static String getString(ByteBuffer record) {
+        final int length = record.getInt();
+        if (length < 0) return null;
+
+        final byte[] utf8 = new byte[length];
+        record.get(utf8);
+        return new String(utf8, StandardCharsets.UTF_8);
+    }
+}
@@ -0,0 +1,352 @@
+package org.mangorage.bootstrap.internal.logger;
+
+import org.mangorage.bootstrap.api.logging.MessageFormatter;
+
+import java.io.IOException;
+import java.io.PrintWriter;
+import java.io.StringWriter;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.Stream;
+
+/**
+ * Appends binary log records to a rolling set of memory-mapped segment files.
+ *
+ * <p>A segment starts with a header ({@code int} magic, {@code short} version, {@code short} reserved, {@code long}
+ * creation time) followed by records. Each record is an {@code int} length, then a {@code byte} type and the body:
+ * <ul>
+ *   <li>{@link #DICTIONARY}: {@code int} id, string. Defines an interned logger name or message template.</li>
+ *   <li>{@link #EVENT}: {@code long} epoch millis, {@code byte} level, {@code long} thread id, interned logger name,
+ *   interned template, {@code int} argument count and the arguments, {@code byte} thrown flag and, if set, the stack
+ *   trace as a string.</li>
+ * </ul>
+ * Strings are an {@code int} UTF-8 length ({@code -1} for null) and the bytes. An interned string is an {@code int}
+ * id, or {@code -1} followed by the string inline. Arguments are a type tag and a value; boxed primitives and strings
+ * keep their type, so {@code %x} or {@code {}} format them the same when decoded, and anything else is rendered the way
+ * {@link MessageFormatter} would render it.
+ *
+ * <p>The dictionary is shared by all segments, but every segment repeats the entries its records use before the
+ * first use, so any segment can be decoded on its own once older ones are deleted. Plain messages without arguments
+ * are written inline rather than interned, as they are often built by concatenation and would never repeat.
+ *
+ * <p>Events are encoded on the caller's thread into a per-thread buffer, then copied into the mapped segment under a
+ * short lock. The length of a record is stored last, so a segment cut off by a crash ends at the last whole record.
+ */
+final class BinaryLogWriter {
+    static final int MAGIC = 0x4D424C47; // "MBLG"
+    static final short VERSION = 2; // 2 added the int, float, char, short and byte argument tags
+    static final int HEADER_SIZE = 16;
+    static final String SEGMENT_PREFIX = "binary-";
+    static final String SEGMENT_SUFFIX = ".mlog";
+
+    static final byte DICTIONARY = 1;
+    static final byte EVENT = 2;
+
+    static final int INLINE = -1;
+
+    static final byte ARG_NULL = 0;
+    static final byte ARG_STRING = 1;
+    static final byte ARG_LONG = 2;
+    static final byte ARG_DOUBLE = 3;
+    static final byte ARG_BOOLEAN = 4;
+    static final byte ARG_INT = 5;
+    static final byte ARG_FLOAT = 6;
+    static final byte ARG_CHAR = 7;
+    static final byte ARG_SHORT = 8;
+    static final byte ARG_BYTE = 9;
+
+    private static final int MAX_DICTIONARY_SIZE = 65536;
+    private static final int MAX_STRING_CHARS = 65536;
+    private static final int MAX_RETAINED_CAPACITY = 64 * 1024;
+    private static final ThreadLocal<Encoder> ENCODERS = ThreadLocal.withInitial(Encoder::new);
+
+    private final Path directory;
+    private final int segmentSize;
+    private final int maxSegments;
+
+    private final Map<String, Integer> dictionary = new ConcurrentHashMap<>();
+    private final AtomicInteger nextId = new AtomicInteger();
+    private volatile String[] strings = new String[256];
+
+    // Guarded by this
+    private MappedByteBuffer segment;
+    private final BitSet definedInSegment = new BitSet();
+    private long segmentIndex;
+
+    BinaryLogWriter(Path directory, int segmentSize, int maxSegments) throws IOException {
+        this.directory = Files.createDirectories(directory);
+        this.segmentSize = segmentSize;
+        this.maxSegments = maxSegments;
+        this.segmentIndex = lastSegmentIndex(directory);
+        roll();
+    }
+
+    private static long lastSegmentIndex(Path directory) throws IOException {
+        try (Stream<Path> files = Files.list(directory)) {
+            return files.map(BinaryLogWriter::segmentIndex).max(Long::compare).orElse(0L);
+        }
+    }
+
+    /**
+     * @return the index of a segment file, or {@code -1} if the file isn't a segment
+     */
+    static long segmentIndex(Path file) {
+        final String name = file.getFileName().toString();
+        if (!name.startsWith(SEGMENT_PREFIX) || !name.endsWith(SEGMENT_SUFFIX)) return -1;
+        try {
+            return Long.parseLong(name.substring(SEGMENT_PREFIX.length(), name.length() - SEGMENT_SUFFIX.length()));
+        } catch (NumberFormatException e) {
+            return -1;
+        }
+    }
+
+    void write(long timestamp, LogLevel level, String loggerName, String template, boolean interned,
+               int argCount, Object arg1, Object arg2, Object arg3, Object[] args, Throwable thrown) {
+        final int loggerId = intern(loggerName);
+        final int templateId = interned ? intern(template) : INLINE;
+
+        final Encoder encoder = ENCODERS.get();
+        encoder.reset();
+        encoder.putByte(EVENT);
+        encoder.putLong(timestamp);
+        encoder.putByte((byte) level.ordinal());
+        encoder.putLong(Thread.currentThread().threadId());
+        encoder.putInterned(loggerId, loggerName);
+        encoder.putInterned(templateId, template);
+
+        encoder.putInt(argCount);
+        for (int i = 0; i < argCount; i++) {
+            encoder.putArg(args != null ? args[i] : switch (i) {
+                case 0 -> arg1;
+                case 1 -> arg2;
+                default -> arg3;
+            });
+        }
+
+        encoder.putByte((byte) (thrown == null ? 0 : 1));
+        if (thrown != null) encoder.putString(stackTrace(thrown));
+
+        append(encoder, loggerId, templateId);
+        encoder.trim();
+    }
+
+    private int intern(String value) {
+        if (value == null) return INLINE;
+
+        final Integer existing = dictionary.get(value);
+        if (existing != null) return existing;
+        if (dictionary.size() >= MAX_DICTIONARY_SIZE) return INLINE;
+
+        return dictionary.computeIfAbsent(value, key -> {
+            final int id = nextId.getAndIncrement();
+            synchronized (dictionary) {
+                if (id >= strings.length) strings = Arrays.copyOf(strings, Math.max(strings.length * 2, id + 1));
+                strings[id] = key;
+            }
+            return id;
+        });
+    }
+
+    private synchronized void append(Encoder event, int loggerId, int templateId) {
+        try {
+            if (segment.remaining() < requiredSpace(event, loggerId, templateId)) {
+                roll();
+                // A record that doesn't fit an empty segment is dropped rather than rolling forever
+                if (segment.remaining() < requiredSpace(event, loggerId, templateId)) return;
+            }
+
+            defineIfNeeded(loggerId);
+            defineIfNeeded(templateId);
+            put(event);
+        } catch (IOException e) {
+            System.err.println("Couldn't roll the binary log in " + directory + ": " + e);
+        }
+    }
+
+    /**
+     * @return an upper bound of the space the event and the dictionary entries it needs take in the current segment
+     */
+    private int requiredSpace(Encoder event, int loggerId, int templateId) {
+        return Integer.BYTES + event.size() + dictionarySpace(loggerId) + dictionarySpace(templateId);
+    }
+
+    private int dictionarySpace(int id) {
+        if (id == INLINE || definedInSegment.get(id)) return 0;
+        return Integer.BYTES + 1 + Integer.BYTES + Integer.BYTES + strings[id].length() * 3;
+    }
+
+    private void defineIfNeeded(int id) {
+        if (id == INLINE || definedInSegment.get(id)) return;
+
+        final Encoder encoder = new Encoder();
+        encoder.putByte(DICTIONARY);
+        encoder.putInt(id);
+        encoder.putString(strings[id]);
+        put(encoder);
+        definedInSegment.set(id);
+    }
+
+    private void put(Encoder record) {
+        final int position = segment.position();
+        segment.put(position + Integer.BYTES, record.bytes, 0, record.size());
+        segment.putInt(position, record.size()); // Publishes the record
+        segment.position(position + Integer.BYTES + record.size());
+    }
+
+    private void roll() throws IOException {
+        if (segment != null) segment.force();
+
+        final Path file = directory.resolve(String.format("%s%06d%s", SEGMENT_PREFIX, ++segmentIndex, SEGMENT_SUFFIX));
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.CREATE_NEW, StandardOpenOption.READ, StandardOpenOption.WRITE)) {
+            segment = channel.map(FileChannel.MapMode.READ_WRITE, 0, segmentSize);
+        }
+        segment.putInt(MAGIC).putShort(VERSION).putShort((short) 0).putLong(System.currentTimeMillis());
+        definedInSegment.clear();
+
+        deleteOldSegments();
+    }
+
+    private void deleteOldSegments() throws IOException {
+        final List<Path> segments;
+        try (Stream<Path> files = Files.list(directory)) {
+            segments = files.filter(file -> segmentIndex(file) >= 0)
+                    .sorted((a, b) -> Long.compare(segmentIndex(a), segmentIndex(b)))
+                    .toList();
+        }
+        for (int i = 0; i < segments.size() - maxSegments; i++) {
+            Files.deleteIfExists(segments.get(i));
+        }
+    }
+
+    /**
+     * Writes the current segment through to its file.
+     */
+    synchronized void force() {
+        segment.force();
+    }
+
+    Path getDirectory() {
+        return directory;
+    }
+
+    private static String stackTrace(Throwable thrown) {
+        final StringWriter writer = new StringWriter();
+        thrown.printStackTrace(new PrintWriter(writer));
+        return writer.toString();
+    }
+
+    /**
+     * Growable big-endian byte buffer, reused by its thread.
+     */
+    private static final class Encoder {
+        private byte[] bytes = new byte[256];
+        private int size;
+
+        void reset() {
+            size = 0;
+        }
+
+        int size() {
+            return size;
+        }
+
+        void trim() {
+            if (bytes.length > MAX_RETAINED_CAPACITY) bytes = new byte[256];
+        }
+
+        private void ensure(int extra) {
+            if (size + extra > bytes.length) bytes = Arrays.copyOf(bytes, Math.max(bytes.length * 2, size + extra));
+        }
+
+        void putByte(byte value) {
+            ensure(1);
+            bytes[size++] = value;
+        }
+
+        void putInt(int value) {
+            ensure(Integer.BYTES);
+            for (int shift = 24; shift >= 0; shift -= 8) bytes[size++] = (byte) (value >>> shift);
+        }
+
+        void putLong(long value) {
+            ensure(Long.BYTES);
+            for (int shift = 56; shift >= 0; shift -= 8) bytes[size++] = (byte) (value >>> shift);
+        }
+
+        void putString(String value) {
+            if (value == null) {
+                putInt(-1);
+                return;
+            }
+            if (value.length() > MAX_STRING_CHARS) value = value.substring(0, MAX_STRING_CHARS) + "...";
+
+            final byte[] utf8 = value.getBytes(StandardCharsets.UTF_8);
+            putInt(utf8.length);
+            ensure(utf8.length);
+            System.arraycopy(utf8, 0, bytes, size, utf8.length);
+            size += utf8.length;
+        }
+
+        void putInterned(int id, String value) {
+            putInt(id);
+            if (id == INLINE) putString(value);
+        }
+
+        void putArg(Object arg) {
+            switch (arg) {
+                case null -> putByte(ARG_NULL);
+                case String string -> {
+                    putByte(ARG_STRING);
+                    putString(string);
+                }
+                case Long number -> {
+                    putByte(ARG_LONG);
+                    putLong(number);
+                }
+                case Integer number -> {
+                    putByte(ARG_INT);
+                    putInt(number);
+                }
+                case Short number -> {
+                    putByte(ARG_SHORT);
+                    putInt(number);
+                }
+                case Byte number -> {
+                    putByte(ARG_BYTE);
+                    putByte(number);
+                }
+                case Double number -> {
+                    putByte(ARG_DOUBLE);
+                    putLong(Double.doubleToRawLongBits(number));
+                }
+                case Float number -> {
+                    putByte(ARG_FLOAT);
+                    putInt(Float.floatToRawIntBits(number));
+                }
+                case Character character -> {
+                    putByte(ARG_CHAR);
+                    putInt(character);
+                }
+                case Boolean bool -> {
+                    putByte(ARG_BOOLEAN);
+                    putByte((byte) (bool ? 1 : 0));
+                }
+                default -> {
+                    // Objects may change after logging, so they're rendered now
+                    putByte(ARG_STRING);
+                    putString(MessageFormatter.format("{}", arg));
+                }
+            }
+        }
+    }
+}
@@ -0,0 +1,62 @@
+package org.mangorage.bootstrap.internal.logger;
+
+import org.mangorage.bootstrap.api.logging.AbstractLoggerProvider;
+import org.mangorage.bootstrap.api.logging.IMangoLogger;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Path;
+
+/**
+ * The {@code binary} provider: compact binary records in rolling memory-mapped files, read back with
+ * {@link BinaryLogDecoder}.
+ *
+ * <p>Configured with system properties:
+ * <ul>
+ *   <li>{@code mangobot.bootstrap.logging.binary.dir} - directory of the segment files (default {@code logs/binary})</li>
+ *   <li>{@code mangobot.bootstrap.logging.binary.segmentSizeMb} - size of each segment (default 16)</li>
+ *   <li>{@code mangobot.bootstrap.logging.binary.segments} - segments kept, older ones are deleted (default 8)</li>
+ * </ul>
+ * The logger cache follows {@code mangobot.bootstrap.logging.cache}, see {@link DefaultLoggerProvider}.
+ *
+ * <p>The first segment is created on first use. A shutdown hook writes the current segment through to disk.
+ */
+public final class BinaryLoggerProvider extends AbstractLoggerProvider {
+    public static final BinaryLoggerProvider INSTANCE = new BinaryLoggerProvider("binary");
+
+    private static final String PROPERTY_PREFIX = "mangobot.bootstrap.logging.binary.";
+
+    private volatile BinaryLogWriter writer;
+
+    BinaryLoggerProvider(String name) {
+        super(name, DefaultLoggerProvider.getConfiguredCacheMode());
+    }
+
+    @Override
+    protected IMangoLogger createLogger(String name) {
+        return new BinaryMangoLogger(name, getName(), getWriter());
+    }
+
+    private BinaryLogWriter getWriter() {
+        BinaryLogWriter current = writer;
+        if (current != null) return current;
+
+        synchronized (this) {
+            if (writer == null) {
+                final Path directory = Path.of(System.getProperty(PROPERTY_PREFIX + "dir", "logs/binary"));
+                final int segmentSize = Math.toIntExact(Math.clamp(Long.getLong(PROPERTY_PREFIX + "segmentSizeMb", 16), 1, 1024) * 1024 * 1024);
+                final int segments = Math.max(1, Integer.getInteger(PROPERTY_PREFIX + "segments", 8));
+
+                final BinaryLogWriter created;
+                try {
+                    created = new BinaryLogWriter(directory, segmentSize, segments);
+                } catch (IOException e) {
+                    throw new UncheckedIOException("Couldn't create the binary log in " + directory, e);
+                }
+                Runtime.getRuntime().addShutdownHook(new Thread(created::force, "mango-binary-logger-shutdown"));
+                writer = created;
+            }
+            return writer;
+        }
+    }
+}
@@ -0,0 +1,44 @@
+package org.mangorage.bootstrap.internal.logger;
+
+import java.util.logging.Logger;
+
+/**
+ * Logger that writes events as binary records through a {@link BinaryLogWriter}, leaving the formatting to
+ * {@link BinaryLogDecoder}. Level checks follow the JUL logger of the same name.
+ */
+public final class BinaryMangoLogger extends AbstractMangoLogger {
+
+    private final Logger delegate;
+    private final BinaryLogWriter writer;
+
+    BinaryMangoLogger(String name, String providerName, BinaryLogWriter writer) {
+        super(name, providerName);
+        this.delegate = Logger.getLogger(name);
+        this.writer = writer;
+    }
+
+    @Override
+    public <T> T unwrap(Class<T> loggerClass) throws UnsupportedOperationException {
+        return loggerClass.isInstance(delegate) ? loggerClass.cast(delegate) : null;
+    }
+
+    @Override
+    protected boolean isEnabled(LogLevel level) {
+        return delegate.isLoggable(level.getJulLevel());
+    }
+
+    @Override
+    protected void log(LogLevel level, String message, Throwable throwable) {
+        writer.write(System.currentTimeMillis(), level, getName(), message, false, 0, null, null, null, null, throwable);
+    }
+
+    @Override
+    protected void logFormatted(LogLevel level, String format, Object[] args) {
+        writer.write(System.currentTimeMillis(), level, getName(), format, true, args == null ? 0 : args.length, null, null, null, args, null);
+    }
+
+    @Override
+    protected void logParameterized(LogLevel level, String template, int argCount, Object arg1, Object arg2, Object arg3) {
+        writer.write(System.currentTimeMillis(), level, getName(), template, true, argCount, arg1, arg2, arg3, null, null);
+    }
+}
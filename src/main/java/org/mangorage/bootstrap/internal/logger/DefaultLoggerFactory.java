@@ -3,23 +3,71 @@ package org.mangorage.bootstrap.internal.logger;
 import org.mangorage.bootstrap.api.logging.IDeferredMangoLogger;
 import org.mangorage.bootstrap.api.logging.ILoggerFactory;
 import org.mangorage.bootstrap.api.logging.ILoggerProvider;
+
+import java.util.Collections;
+import java.util.List;
 import java.util.Map;
 import java.util.ServiceLoader;
+import java.util.Set;
+import java.util.WeakHashMap;
 import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
 
 public final class DefaultLoggerFactory implements ILoggerFactory {
     public static final DefaultLoggerFactory INSTANCE = new DefaultLoggerFactory();
     private static final Map<String, ILoggerProvider> providers = new ConcurrentHashMap<>(); // Placeholder for actual provider storage
 
+    // Bumped whenever the registered providers change, so deferred loggers know to resolve again
+    private static final AtomicInteger generation = new AtomicInteger();
+    private static final Set<DeferredMangoLogger> deferredLoggers = Collections.newSetFromMap(new WeakHashMap<>());
+
     static {
         providers.put("default", DefaultLoggerProvider.INSTANCE);
+        providers.put("async", AsyncLoggerProvider.INSTANCE);
+        providers.put("binary", BinaryLoggerProvider.INSTANCE);
     }
 
     public static void load(ModuleLayer moduleLayer) {
-        ServiceLoader.load(moduleLayer, ILoggerProvider.class).forEach(provider -> {
-            // Register the provider in some way, e.g., add it to a map
+        boolean changed = false;
+
+        for (ILoggerProvider provider : ServiceLoader.load(moduleLayer, ILoggerProvider.class)) {
+            final ILoggerProvider existing = providers.get(provider.getName());
+            if (existing != null && existing.getClass() == provider.getClass()) continue; // Same provider, loaded again
+
             providers.put(provider.getName(), provider);
-        });
+            changed = true;
+        }
+
+        if (changed) invalidateDeferredLoggers();
+    }
+
+    /**
+     * Drops the providers defined by the given layer, so a layer being replaced isn't kept alive by them.
+     * Loggers of the dropped providers resolve again on their next use.
+     */
+    public static void unload(ModuleLayer moduleLayer) {
+        final boolean changed = providers.values().removeIf(provider -> provider.getClass().getModule().getLayer() == moduleLayer);
+        if (changed) invalidateDeferredLoggers();
+    }
+
+    static int getGeneration() {
+        return generation.get();
+    }
+
+    static void track(DeferredMangoLogger logger) {
+        synchronized (deferredLoggers) {
+            deferredLoggers.add(logger);
+        }
+    }
+
+    private static void invalidateDeferredLoggers() {
+        generation.incrementAndGet();
+
+        final List<DeferredMangoLogger> loggers;
+        synchronized (deferredLoggers) {
+            loggers = List.copyOf(deferredLoggers);
+        }
+        loggers.forEach(DeferredMangoLogger::invalidate);
     }
 
     DefaultLoggerFactory() {
@@ -27,9 +75,7 @@ public final class DefaultLoggerFactory implements ILoggerFactory {
 
     @Override
     public ILoggerProvider getProvider(String providerName) {
-        synchronized (INSTANCE) {
-            return providers.getOrDefault(providerName, DefaultLoggerProvider.INSTANCE);
-        }
+        return providers.getOrDefault(providerName, DefaultLoggerProvider.INSTANCE);
     }
 
     @Override
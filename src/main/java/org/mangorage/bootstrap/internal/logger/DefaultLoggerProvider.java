@@ -4,15 +4,27 @@ import org.mangorage.bootstrap.api.logging.AbstractLoggerProvider;
 import org.mangorage.bootstrap.api.logging.ILoggerProvider;
 import org.mangorage.bootstrap.api.logging.IMangoLogger;
 
+import java.util.Locale;
+
+/**
+ * The {@code default} provider, writing straight to JUL.
+ *
+ * <p>{@code mangobot.bootstrap.logging.cache} selects the {@link CacheMode} of the built-in providers:
+ * {@code strong} (default) or {@code weak}, for bots creating loggers per guild or channel.
+ */
 public final class DefaultLoggerProvider extends AbstractLoggerProvider {
     public static final ILoggerProvider INSTANCE = new DefaultLoggerProvider("default");
 
     DefaultLoggerProvider(String name) {
-        super(name);
+        super(name, getConfiguredCacheMode());
+    }
+
+    static CacheMode getConfiguredCacheMode() {
+        return CacheMode.valueOf(System.getProperty("mangobot.bootstrap.logging.cache", "strong").toUpperCase(Locale.ROOT));
     }
 
     @Override
     protected IMangoLogger createLogger(String name) {
-        return new JulMangoLogger(name);
+        return new JulMangoLogger(name, getName());
     }
 }
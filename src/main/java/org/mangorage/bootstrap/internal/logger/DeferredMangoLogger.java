@@ -7,6 +7,13 @@ import org.mangorage.bootstrap.api.logging.IMangoLogger;
 
 import java.util.function.Function;
 
+/**
+ * Resolves its logger once and then serves it with a single volatile read.
+ * <p>
+ * If the requested provider isn't registered yet, the logger resolves against the default provider.
+ * {@link DefaultLoggerFactory#load(ModuleLayer)} clears every resolved logger when new providers arrive,
+ * so the next {@link #get()} picks up the requested provider.
+ */
 public final class DeferredMangoLogger implements IDeferredMangoLogger {
 
     private final String provider;
@@ -16,23 +23,33 @@ public final class DeferredMangoLogger implements IDeferredMangoLogger {
     public DeferredMangoLogger(String provider, Function<ILoggerProvider, IMangoLogger> loggerFunction) {
         this.provider = provider;
         this.loggerFunction = loggerFunction;
+        DefaultLoggerFactory.track(this);
     }
 
 
     @Override
     public IMangoLogger get() {
-        if (logger == null && ILoggerFactory.getDefault().hasProvider(provider)) {
-            synchronized (this) {
-                if (logger == null) {
-                    ILoggerProvider loggerProvider = ILoggerFactory.getDefault().getProvider(provider);
-                    logger = loggerFunction.apply(loggerProvider);
-                    if (logger != null) return logger;
-                }
-            }
-        } else if (logger != null) {
-            return logger;
+        final IMangoLogger resolved = logger;
+        return resolved != null ? resolved : resolve();
+    }
+
+    private IMangoLogger resolve() {
+        final int generation = DefaultLoggerFactory.getGeneration();
+
+        IMangoLogger resolved = loggerFunction.apply(ILoggerFactory.getDefault().getProvider(provider));
+        if (resolved == null) {
+            resolved = loggerFunction.apply(ILoggerFactory.getDefault().getProvider("default"));
         }
 
-        return loggerFunction.apply(ILoggerFactory.getDefault().getProvider("default"));
+        logger = resolved;
+        if (DefaultLoggerFactory.getGeneration() != generation) {
+            logger = null; // Providers changed while resolving, resolve again on the next call
+        }
+
+        return resolved;
+    }
+
+    void invalidate() {
+        logger = null;
     }
 }
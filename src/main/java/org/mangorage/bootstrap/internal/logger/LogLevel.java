@@ -0,0 +1,28 @@
+package org.mangorage.bootstrap.internal.logger;
+
+import java.util.logging.Level;
+
+/**
+ * The levels of {@link org.mangorage.bootstrap.api.logging.IMangoLogger}, in ascending severity.
+ */
+public enum LogLevel {
+    TRACE(Level.FINEST),
+    DEBUG(Level.FINE),
+    INFO(Level.INFO),
+    WARN(Level.WARNING),
+    ERROR(Level.SEVERE);
+
+    private final Level julLevel;
+
+    LogLevel(Level julLevel) {
+        this.julLevel = julLevel;
+    }
+
+    public Level getJulLevel() {
+        return julLevel;
+    }
+
+    public boolean isAtLeast(LogLevel level) {
+        return compareTo(level) >= 0;
+    }
+}
@@ -0,0 +1,278 @@
+package org.mangorage.bootstrap.internal.logger;
+
+import org.mangorage.bootstrap.api.logging.MessageFormatter;
+
+import java.time.Instant;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.LockSupport;
+import java.util.logging.Handler;
+import java.util.logging.LogRecord;
+import java.util.logging.Logger;
+import java.util.logging.SimpleFormatter;
+import java.util.logging.StreamHandler;
+
+/**
+ * Bounded, lock-free, multi-producer ring buffer of log events drained by a single background thread.
+ *
+ * <p>All slots are allocated up front and reused. Producers claim a sequence number with a CAS,
+ * fill the slot and publish it by storing the sequence in the slot's publication marker; the drain
+ * thread hands published events to their JUL logger in sequence order and frees the slot afterwards.
+ *
+ * <p>{@link #close()} seals the buffer so no further sequences can be claimed, then waits for every
+ * claimed event to be delivered. Events logged after that are delivered on the caller's thread.
+ */
+final class LogRingBuffer implements AutoCloseable {
+    private static final long CLOSED = Long.MIN_VALUE;
+    private static final long PARK_NANOS = TimeUnit.MILLISECONDS.toNanos(10);
+    private static final long BACKOFF_NANOS = TimeUnit.MICROSECONDS.toNanos(50);
+    private static final int SPINS = 64;
+
+    private final LogEvent[] events;
+    private final AtomicLongArray published;
+    private final int capacity;
+    private final int mask;
+
+    private final OverflowPolicy overflowPolicy;
+    private final LogLevel overflowLevel;
+    private final LongAdder dropped = new LongAdder();
+
+    /** The next sequence to hand out, with {@link #CLOSED} set once the buffer is sealed. */
+    private final AtomicLong claimed = new AtomicLong();
+    /** The next sequence the drain thread will deliver; every slot before it is free. */
+    private volatile long consumed;
+    private volatile boolean drainParked;
+    private volatile boolean shuttingDown;
+
+    private final Thread drainThread;
+    private Handler fallbackHandler;
+
+    LogRingBuffer(int capacity, OverflowPolicy overflowPolicy, LogLevel overflowLevel) {
+        this.capacity = Integer.highestOneBit(Math.max(2, capacity - 1)) << 1;
+        this.mask = this.capacity - 1;
+        this.overflowPolicy = overflowPolicy;
+        this.overflowLevel = overflowLevel;
+
+        this.events = new LogEvent[this.capacity];
+        this.published = new AtomicLongArray(this.capacity);
+        for (int i = 0; i < this.capacity; i++) {
+            events[i] = new LogEvent();
+            published.set(i, -1);
+        }
+
+        this.drainThread = Thread.ofPlatform()
+                .name("mango-async-logger")
+                .daemon(true)
+                .unstarted(this::drain);
+        drainThread.start();
+    }
+
+    int getCapacity() {
+        return capacity;
+    }
+
+    long getDroppedCount() {
+        return dropped.sum();
+    }
+
+    /**
+     * Enqueues an event, or delivers it directly if the buffer is closed or the caller is the drain thread.
+     *
+     * @return {@code false} if the event was dropped because the buffer was full
+     */
+    boolean publish(Logger target, LogLevel level, String message,
+                    int argCount, Object arg1, Object arg2, Object arg3, Object[] args, Throwable thrown) {
+        final long timestamp = System.currentTimeMillis();
+        final long threadId = Thread.currentThread().threadId();
+
+        if (Thread.currentThread() == drainThread) {
+            deliver(target, level, format(message, argCount, arg1, arg2, arg3, args), thrown, timestamp, threadId);
+            return true;
+        }
+
+        final long sequence = claim(level);
+        if (sequence == CLOSED) {
+            deliver(target, level, format(message, argCount, arg1, arg2, arg3, args), thrown, timestamp, threadId);
+            return true;
+        }
+
+        if (sequence < 0) {
+            dropped.increment();
+            return false;
+        }
+
+        final int index = (int) (sequence & mask);
+        events[index].set(target, level, message, argCount, arg1, arg2, arg3, args, thrown, timestamp, threadId);
+        published.set(index, sequence);
+
+        if (drainParked) LockSupport.unpark(drainThread);
+        return true;
+    }
+
+    /**
+     * @return the claimed sequence, {@code -1} if the event should be dropped, or {@link #CLOSED}
+     */
+    private long claim(LogLevel level) {
+        int spins = 0;
+
+        while (true) {
+            final long sequence = claimed.get();
+            if (sequence < 0) return CLOSED;
+
+            if (sequence - consumed < capacity) {
+                if (claimed.compareAndSet(sequence, sequence + 1)) return sequence;
+                continue;
+            }
+
+            if (overflowPolicy == OverflowPolicy.DROP) return -1;
+            if (overflowPolicy == OverflowPolicy.DROP_BELOW_LEVEL && !level.isAtLeast(overflowLevel)) return -1;
+
+            if (drainParked) LockSupport.unpark(drainThread);
+            if (++spins < SPINS) {
+                Thread.onSpinWait();
+            } else {
+                LockSupport.parkNanos(this, BACKOFF_NANOS);
+            }
+        }
+    }
+
+    /**
+     * Waits until every event published before this call has been delivered.
+     */
+    void flush() {
+        final long target = claimed.get() & Long.MAX_VALUE;
+        while (consumed < target && drainThread.isAlive()) {
+            if (drainParked) LockSupport.unpark(drainThread);
+            LockSupport.parkNanos(this, BACKOFF_NANOS);
+        }
+    }
+
+    /**
+     * Seals the buffer and waits for the drain thread to deliver everything claimed so far.
+     */
+    @Override
+    public void close() {
+        shuttingDown = true;
+
+        long sequence;
+        do {
+            sequence = claimed.get();
+        } while (sequence >= 0 && !claimed.compareAndSet(sequence, sequence | CLOSED));
+
+        LockSupport.unpark(drainThread);
+        try {
+            drainThread.join();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private void drain() {
+        long next = 0;
+
+        while (true) {
+            final int index = (int) (next & mask);
+
+            if (published.get(index) == next) {
+                events[index].deliverTo(this);
+                consumed = ++next;
+                continue;
+            }
+
+            final long claimedNow = claimed.get();
+            if (claimedNow < 0 && next == (claimedNow & Long.MAX_VALUE)) return;
+
+            drainParked = true;
+            if (published.get(index) != next && claimed.get() >= 0) {
+                LockSupport.parkNanos(this, PARK_NANOS);
+            }
+            drainParked = false;
+        }
+    }
+
+    private static String format(String message, int argCount, Object arg1, Object arg2, Object arg3, Object[] args) {
+        return args != null ? MessageFormatter.format(message, args) : AbstractMangoLogger.format(message, argCount, arg1, arg2, arg3);
+    }
+
+    private void deliver(Logger target, LogLevel level, String message, Throwable thrown, long timestamp, long threadId) {
+        try {
+            final LogRecord record = new LogRecord(level.getJulLevel(), message);
+            record.setLoggerName(target.getName());
+            record.setSourceClassName(target.getName());
+            record.setThrown(thrown);
+            record.setInstant(Instant.ofEpochMilli(timestamp));
+            record.setLongThreadID(threadId);
+
+            if (shuttingDown && !hasHandlers(target)) {
+                // The JUL LogManager resets its handlers in its own shutdown hook, don't lose what is left
+                fallbackHandler().publish(record);
+                fallbackHandler().flush();
+            } else {
+                target.log(record);
+            }
+        } catch (RuntimeException e) {
+            System.err.println("Failed to deliver async log event from " + target.getName() + ": " + e);
+        }
+    }
+
+    private static boolean hasHandlers(Logger logger) {
+        for (Logger current = logger; current != null; current = current.getParent()) {
+            if (current.getHandlers().length > 0) return true;
+            if (!current.getUseParentHandlers()) return false;
+        }
+        return false;
+    }
+
+    private synchronized Handler fallbackHandler() {
+        if (fallbackHandler == null) {
+            fallbackHandler = new StreamHandler(System.err, new SimpleFormatter());
+        }
+        return fallbackHandler;
+    }
+
+    /**
+     * A preallocated slot. Only the producer that claimed it writes to it, and only the drain thread reads it once published.
+     */
+    private static final class LogEvent {
+        private Logger target;
+        private LogLevel level;
+        private String message;
+        private int argCount;
+        private Object arg1;
+        private Object arg2;
+        private Object arg3;
+        private Object[] args;
+        private Throwable thrown;
+        private long timestamp;
+        private long threadId;
+
+        void set(Logger target, LogLevel level, String message,
+                 int argCount, Object arg1, Object arg2, Object arg3, Object[] args,
+                 Throwable thrown, long timestamp, long threadId) {
+            this.target = target;
+            this.level = level;
+            this.message = message;
+            this.argCount = argCount;
+            this.arg1 = arg1;
+            this.arg2 = arg2;
+            this.arg3 = arg3;
+            this.args = args;
+            this.thrown = thrown;
+            this.timestamp = timestamp;
+            this.threadId = threadId;
+        }
+
+        void deliverTo(LogRingBuffer buffer) {
+            buffer.deliver(target, level, format(message, argCount, arg1, arg2, arg3, args), thrown, timestamp, threadId);
+            target = null;
+            message = null;
+            arg1 = null;
+            arg2 = null;
+            arg3 = null;
+            args = null;
+            thrown = null;
+        }
+    }
+}
@@ -0,0 +1,19 @@
+package org.mangorage.bootstrap.internal.logger;
+
+/**
+ * What {@link LogRingBuffer} does with an event when the buffer is full.
+ */
+public enum OverflowPolicy {
+    /**
+     * Wait for the drain thread to free a slot.
+     */
+    BLOCK,
+    /**
+     * Drop the event.
+     */
+    DROP,
+    /**
+     * Drop events below the configured level, wait for a free slot for the rest.
+     */
+    DROP_BELOW_LEVEL
+}
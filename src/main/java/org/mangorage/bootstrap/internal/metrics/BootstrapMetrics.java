@@ -0,0 +1,136 @@
+package org.mangorage.bootstrap.internal.metrics;
+
+import javax.management.JMException;
+import javax.management.MBeanServer;
+import javax.management.ObjectName;
+import java.lang.management.ManagementFactory;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Runtime metrics of the bootstrap, exposed as MXBeans in the {@code org.mangorage.bootstrap} domain:
+ * <ul>
+ *   <li>{@code type=ClassLoading} - classes defined per module and the time defining them took, for loaders from
+ *   {@code IMangoLoaderFactory} only</li>
+ *   <li>{@code type=Transformer,name=<name>} - calls and time per {@code IClassTransformer.getName()}</li>
+ *   <li>{@code type=Logging,provider=<name>} - events per level of each built-in logger provider</li>
+ * </ul>
+ * Counters are {@link java.util.concurrent.atomic.LongAdder}s, so recording from many threads doesn't contend.
+ * {@code -Dmangobot.bootstrap.metrics=false} turns all of it off; the accessors then return {@code null} and the
+ * hooks skip even reading the clock.
+ * <p>
+ * Starting the platform MBean server takes a good part of a second, so beans are only registered once the bootstrap
+ * {@link #publish() publishes} them, and then on a background thread.
+ */
+public final class BootstrapMetrics {
+    public static final boolean ENABLED = Boolean.parseBoolean(System.getProperty("mangobot.bootstrap.metrics", "true"));
+
+    private static final String DOMAIN = "org.mangorage.bootstrap";
+
+    private static final ClassLoadingMetrics CLASS_LOADING = ENABLED ? new ClassLoadingMetrics() : null;
+    private static final Map<String, TransformerMetrics> TRANSFORMERS = new ConcurrentHashMap<>();
+    private static final Map<String, LoggingMetrics> LOGGING = new ConcurrentHashMap<>();
+
+    // Guarded by BootstrapMetrics.class
+    private static final List<Registration> pending = new ArrayList<>();
+    private static boolean published;
+
+    static {
+        if (ENABLED) register(DOMAIN + ":type=ClassLoading", CLASS_LOADING);
+    }
+
+    private BootstrapMetrics() {
+    }
+
+    /**
+     * @return the class loading metrics, or {@code null} if metrics are disabled
+     */
+    public static ClassLoadingMetrics classLoading() {
+        return CLASS_LOADING;
+    }
+
+    /**
+     * @return the metrics of transformers with this name, or {@code null} if metrics are disabled
+     */
+    public static TransformerMetrics transformer(String name) {
+        if (!ENABLED) return null;
+
+        final TransformerMetrics existing = TRANSFORMERS.get(name);
+        if (existing != null) return existing;
+
+        final TransformerMetrics created = new TransformerMetrics(name);
+        final TransformerMetrics raced = TRANSFORMERS.putIfAbsent(name, created);
+        if (raced != null) return raced;
+
+        register(DOMAIN + ":type=Transformer,name=" + quoteIfNeeded(name), created);
+        return created;
+    }
+
+    /**
+     * @return the metrics of the loggers of this provider, or {@code null} if metrics are disabled
+     */
+    public static LoggingMetrics logging(String providerName) {
+        if (!ENABLED) return null;
+
+        final LoggingMetrics existing = LOGGING.get(providerName);
+        if (existing != null) return existing;
+
+        final LoggingMetrics created = new LoggingMetrics(providerName);
+        final LoggingMetrics raced = LOGGING.putIfAbsent(providerName, created);
+        if (raced != null) return raced;
+
+        register(DOMAIN + ":type=Logging,provider=" + quoteIfNeeded(providerName), created);
+        return created;
+    }
+
+    /**
+     * Registers the beans created so far with the platform MBean server, in the background, and every bean created
+     * from now on as it comes. Does nothing when called again.
+     */
+    public static synchronized void publish() {
+        if (!ENABLED || published) return;
+        published = true;
+
+        final List<Registration> registrations = List.copyOf(pending);
+        pending.clear();
+        Thread.ofVirtual().name("mango-metrics-jmx").start(() -> registerAll(registrations));
+    }
+
+    private static synchronized void register(String objectName, Object bean) {
+        final Registration registration = new Registration(objectName, bean);
+        if (published) {
+            Thread.ofVirtual().name("mango-metrics-jmx").start(() -> registerAll(List.of(registration)));
+        } else {
+            pending.add(registration);
+        }
+    }
+
+    private static void registerAll(List<Registration> registrations) {
+        final MBeanServer server = ManagementFactory.getPlatformMBeanServer();
+        for (Registration registration : registrations) {
+            try {
+                final ObjectName name = new ObjectName(registration.objectName());
+                if (!server.isRegistered(name)) server.registerMBean(registration.bean(), name);
+            } catch (JMException e) {
+                System.err.println("Couldn't register metrics " + registration.objectName() + ": " + e);
+            }
+        }
+    }
+
+    private static String quoteIfNeeded(String value) {
+        for (int i = 0; i < value.length(); i++) {
+            switch (value.charAt(i)) {
+                case ',', '=', ':', '"', '*', '?', '\n' -> {
+                    return ObjectName.quote(value);
+                }
+                default -> {
+                }
+            }
+        }
+        return value.isEmpty() ? ObjectName.quote(value) : value;
+    }
+
+    private record Registration(String objectName, Object bean) {}
+}
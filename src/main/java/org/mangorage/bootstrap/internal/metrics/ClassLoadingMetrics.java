@@ -0,0 +1,29 @@
+package org.mangorage.bootstrap.internal.metrics;
+
+import org.mangorage.bootstrap.api.metrics.ClassLoadingMetricsMXBean;
+
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+
+public final class ClassLoadingMetrics extends LatencyHistogram implements ClassLoadingMetricsMXBean {
+    private final Map<String, LongAdder> perModule = new ConcurrentHashMap<>();
+
+    ClassLoadingMetrics() {
+    }
+
+    public void recordDefined(String moduleName, long nanos) {
+        LongAdder defined = perModule.get(moduleName);
+        if (defined == null) defined = perModule.computeIfAbsent(moduleName, k -> new LongAdder());
+        defined.increment();
+        record(nanos);
+    }
+
+    @Override
+    public Map<String, Long> getClassesDefinedPerModule() {
+        final Map<String, Long> result = new TreeMap<>();
+        perModule.forEach((module, defined) -> result.put(module, defined.sum()));
+        return result;
+    }
+}
@@ -0,0 +1,61 @@
+package org.mangorage.bootstrap.internal.metrics;
+
+import org.mangorage.bootstrap.api.metrics.LoggingMetricsMXBean;
+import org.mangorage.bootstrap.internal.logger.LogLevel;
+
+import java.util.concurrent.atomic.LongAdder;
+
+public final class LoggingMetrics implements LoggingMetricsMXBean {
+    private final String providerName;
+    private final LongAdder[] events = new LongAdder[LogLevel.values().length];
+
+    LoggingMetrics(String providerName) {
+        this.providerName = providerName;
+        for (int i = 0; i < events.length; i++) events[i] = new LongAdder();
+    }
+
+    public void recordEvent(LogLevel level) {
+        events[level.ordinal()].increment();
+    }
+
+    private long sum(LogLevel level) {
+        return events[level.ordinal()].sum();
+    }
+
+    @Override
+    public String getProviderName() {
+        return providerName;
+    }
+
+    @Override
+    public long getTraceEvents() {
+        return sum(LogLevel.TRACE);
+    }
+
+    @Override
+    public long getDebugEvents() {
+        return sum(LogLevel.DEBUG);
+    }
+
+    @Override
+    public long getInfoEvents() {
+        return sum(LogLevel.INFO);
+    }
+
+    @Override
+    public long getWarnEvents() {
+        return sum(LogLevel.WARN);
+    }
+
+    @Override
+    public long getErrorEvents() {
+        return sum(LogLevel.ERROR);
+    }
+
+    @Override
+    public long getTotalEvents() {
+        long total = 0;
+        for (LongAdder adder : events) total += adder.sum();
+        return total;
+    }
+}
@@ -0,0 +1,40 @@
+package org.mangorage.bootstrap.internal.metrics;
+
+import org.mangorage.bootstrap.api.metrics.TransformerMetricsMXBean;
+
+import java.util.concurrent.atomic.LongAdder;
+
+public final class TransformerMetrics extends LatencyHistogram implements TransformerMetricsMXBean {
+    private final String name;
+    private final LongAdder rewrites = new LongAdder();
+    private final LongAdder failures = new LongAdder();
+
+    TransformerMetrics(String name) {
+        this.name = name;
+    }
+
+    public void recordCall(long nanos, boolean rewritten) {
+        record(nanos);
+        if (rewritten) rewrites.increment();
+    }
+
+    public void recordFailure(long nanos) {
+        record(nanos);
+        failures.increment();
+    }
+
+    @Override
+    public String getTransformerName() {
+        return name;
+    }
+
+    @Override
+    public long getRewrites() {
+        return rewrites.sum();
+    }
+
+    @Override
+    public long getFailures() {
+        return failures.sum();
+    }
+}
@@ -0,0 +1,137 @@
+package org.mangorage.bootstrap.internal.module;
+
+import org.mangorage.bootstrap.internal.zip.ZipIndex;
+
+import java.io.IOException;
+import java.lang.module.InvalidModuleDescriptorException;
+import java.lang.module.ModuleDescriptor;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.jar.Attributes;
+import java.util.jar.Manifest;
+
+/**
+ * Builds a jar's {@link ModuleDescriptor} from an already open {@link ZipIndex}, following the rules
+ * {@link java.lang.module.ModuleFinder#of(java.nio.file.Path...)} applies to jars.
+ * <p>
+ * Packages come from the entry names in the central directory. Only {@code module-info.class}, the manifest and the
+ * service configuration files of automatic modules are read, so a jar that was just hashed isn't opened again.
+ */
+final class JarModuleDescriptors {
+    private static final String MODULE_INFO = "module-info.class";
+    private static final String SERVICES_PREFIX = "META-INF/services/";
+    private static final Attributes.Name AUTOMATIC_MODULE_NAME = new Attributes.Name("Automatic-Module-Name");
+
+    private JarModuleDescriptors() {}
+
+    /**
+     * @return the descriptor read from the jar's {@code module-info.class}, with packages from its entries if the
+     * descriptor doesn't list them
+     * @throws InvalidModuleDescriptorException if the module-info is invalid
+     */
+    static ModuleDescriptor readExplicit(ZipIndex index, byte[] moduleInfo) {
+        final Set<String> packages = new HashSet<>();
+        final Map<String, Boolean> checked = new HashMap<>();
+        for (String name : index.getNames()) {
+            if (name.endsWith("/")) continue;
+
+            final String packageName = toPackageName(name, checked);
+            if (packageName != null) packages.add(packageName);
+        }
+
+        return ModuleDescriptor.read(ByteBuffer.wrap(moduleInfo), () -> packages);
+    }
+
+    /**
+     * @param manifest the jar's manifest, or {@code null} if it has none
+     * @return the descriptor of the jar as an automatic module
+     * @throws IllegalArgumentException if the jar doesn't yield a legal module name, or a class sits outside any
+     * package or a service provider outside the jar
+     */
+    static ModuleDescriptor deriveAutomatic(ZipIndex index, Manifest manifest) throws IOException {
+        final String fileName = index.getFile().getFileName().toString();
+        final Attributes attributes = manifest == null ? null : manifest.getMainAttributes();
+
+        final String automaticName = attributes == null ? null : attributes.getValue(AUTOMATIC_MODULE_NAME);
+        final ModuleDescriptor.Builder builder = ModuleDescriptor.newAutomaticModule(
+                automaticName != null ? automaticName : ModuleNameInference.deriveName(fileName));
+
+        final String version = ModuleNameInference.deriveVersion(fileName);
+        if (version != null) builder.version(version);
+
+        final Set<String> packages = new HashSet<>();
+        final List<String> serviceFiles = new ArrayList<>();
+        final Map<String, Boolean> checked = new HashMap<>();
+        for (String name : index.getNames()) {
+            if (name.endsWith("/")) continue;
+
+            final boolean service = name.startsWith(SERVICES_PREFIX);
+            if (service == name.endsWith(".class")) continue;
+
+            if (service) {
+                serviceFiles.add(name);
+            } else {
+                final String packageName = toPackageName(name, checked);
+                if (packageName != null) packages.add(packageName);
+            }
+        }
+        builder.packages(packages);
+
+        for (String serviceFile : serviceFiles) {
+            final String service = serviceFile.substring(SERVICES_PREFIX.length());
+            if (service.indexOf('/') >= 0 || !ModuleNameInference.isModuleName(service)) continue;
+
+            final List<String> providers = new ArrayList<>();
+            final String content = StandardCharsets.UTF_8.decode(index.read(index.getEntry(serviceFile))).toString();
+            for (String line : content.lines().toList()) {
+                final int comment = line.indexOf('#');
+                final String provider = (comment < 0 ? line : line.substring(0, comment)).trim();
+                if (provider.isEmpty()) continue;
+
+                if (!packages.contains(packageName(provider))) {
+                    throw new InvalidModuleDescriptorException("Provider class " + provider + " not in JAR file " + fileName);
+                }
+                providers.add(provider);
+            }
+            if (!providers.isEmpty()) builder.provides(service, providers);
+        }
+
+        final String mainClass = attributes == null ? null : attributes.getValue(Attributes.Name.MAIN_CLASS);
+        if (mainClass != null) {
+            final String className = mainClass.replace('/', '.');
+            if (ModuleNameInference.isModuleName(className) && packages.contains(packageName(className))) {
+                builder.mainClass(className);
+            }
+        }
+
+        return builder.build();
+    }
+
+    /**
+     * @return the package of an entry, or {@code null} if its directory isn't a legal package name
+     */
+    private static String toPackageName(String name, Map<String, Boolean> checked) {
+        final int slash = name.lastIndexOf('/');
+        if (slash < 0) {
+            if (name.endsWith(".class") && !name.equals(MODULE_INFO)) {
+                throw new InvalidModuleDescriptorException(name + " found in top-level directory (unnamed package not allowed in module)");
+            }
+            return null;
+        }
+
+        final String packageName = name.substring(0, slash).replace('/', '.');
+        // Many entries share a directory, and an illegal name is only found out by an exception
+        return checked.computeIfAbsent(packageName, ModuleNameInference::isModuleName) ? packageName : null;
+    }
+
+    private static String packageName(String className) {
+        final int dot = className.lastIndexOf('.');
+        return dot < 0 ? "" : className.substring(0, dot);
+    }
+}
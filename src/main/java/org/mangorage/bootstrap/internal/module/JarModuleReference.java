@@ -0,0 +1,147 @@
+package org.mangorage.bootstrap.internal.module;
+
+import org.mangorage.bootstrap.internal.zip.ZipIndex;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.lang.module.ModuleDescriptor;
+import java.lang.module.ModuleReader;
+import java.lang.module.ModuleReference;
+import java.net.URI;
+import java.net.URISyntaxException;
+import java.nio.ByteBuffer;
+import java.nio.file.Path;
+import java.util.Optional;
+import java.util.jar.JarEntry;
+import java.util.jar.JarFile;
+import java.util.stream.Stream;
+import java.util.zip.ZipFile;
+
+/**
+ * A {@link ModuleReference} to a jar whose descriptor was built up front, so the jar itself is
+ * only opened once something actually reads from the module.
+ * <p>
+ * By default the jar is memory-mapped through a {@link ZipIndex}, so {@link ModuleReader#read(String)} hands out
+ * stored entries without copying them. {@code -Dmangobot.bootstrap.loader.mappedJars=false} reads through
+ * {@link JarFile} instead, which doesn't keep the jar mapped (and locked, on Windows) until the reader is collected.
+ */
+public final class JarModuleReference extends ModuleReference {
+    private static final boolean MAPPED = Boolean.parseBoolean(System.getProperty("mangobot.bootstrap.loader.mappedJars", "true"));
+
+    private final Path jar;
+
+    public JarModuleReference(ModuleDescriptor descriptor, Path jar) {
+        super(descriptor, jar.toUri());
+        this.jar = jar;
+    }
+
+    public Path getJar() {
+        return jar;
+    }
+
+    @Override
+    public ModuleReader open() throws IOException {
+        return MAPPED ? new MappedJarModuleReader(ZipIndex.open(jar)) : new JarModuleReader(jar);
+    }
+
+    private static URI toUri(String jarUri, String entryName) throws IOException {
+        try {
+            return new URI(jarUri + new URI(null, null, entryName, null).getRawPath());
+        } catch (URISyntaxException e) {
+            throw new IOException("Invalid resource name: " + entryName, e);
+        }
+    }
+
+    private static final class MappedJarModuleReader implements ModuleReader {
+        private final ZipIndex index;
+        private final String jarUri;
+        private volatile boolean closed;
+
+        MappedJarModuleReader(ZipIndex index) {
+            this.index = index;
+            this.jarUri = "jar:" + index.getFile().toUri() + "!/";
+        }
+
+        private ZipIndex.Entry getEntry(String name) throws IOException {
+            if (closed) throw new IOException("ModuleReader is closed");
+            final ZipIndex.Entry entry = index.getEntry(name);
+            return entry == null || entry.isDirectory() ? null : entry;
+        }
+
+        @Override
+        public Optional<URI> find(String name) throws IOException {
+            if (closed) throw new IOException("ModuleReader is closed");
+            final ZipIndex.Entry entry = index.getEntry(name);
+            return entry == null ? Optional.empty() : Optional.of(toUri(jarUri, name));
+        }
+
+        @Override
+        public Optional<InputStream> open(String name) throws IOException {
+            final ZipIndex.Entry entry = getEntry(name);
+            return entry == null ? Optional.empty() : Optional.of(new ByteArrayInputStream(index.readBytes(entry)));
+        }
+
+        /**
+         * @return a read-only view of the mapped jar for stored entries, a freshly inflated buffer otherwise
+         */
+        @Override
+        public Optional<ByteBuffer> read(String name) throws IOException {
+            final ZipIndex.Entry entry = getEntry(name);
+            return entry == null ? Optional.empty() : Optional.of(index.read(entry));
+        }
+
+        @Override
+        public Stream<String> list() throws IOException {
+            if (closed) throw new IOException("ModuleReader is closed");
+            return index.getNames().stream();
+        }
+
+        @Override
+        public void close() {
+            closed = true;
+        }
+    }
+
+    private static final class JarModuleReader implements ModuleReader {
+        private final JarFile jarFile;
+        private final String jarUri;
+        private volatile boolean closed;
+
+        JarModuleReader(Path jar) throws IOException {
+            this.jarFile = new JarFile(jar.toFile(), true, ZipFile.OPEN_READ, Runtime.version());
+            this.jarUri = "jar:" + jar.toUri() + "!/";
+        }
+
+        private JarEntry getEntry(String name) throws IOException {
+            if (closed) throw new IOException("ModuleReader is closed");
+            return jarFile.getJarEntry(name);
+        }
+
+        @Override
+        public Optional<URI> find(String name) throws IOException {
+            final JarEntry entry = getEntry(name);
+            if (entry == null) return Optional.empty();
+
+            return Optional.of(toUri(jarUri, entry.getName()));
+        }
+
+        @Override
+        public Optional<InputStream> open(String name) throws IOException {
+            final JarEntry entry = getEntry(name);
+            return entry == null || entry.isDirectory() ? Optional.empty() : Optional.of(jarFile.getInputStream(entry));
+        }
+
+        @Override
+        public Stream<String> list() throws IOException {
+            if (closed) throw new IOException("ModuleReader is closed");
+            return jarFile.versionedStream().map(JarEntry::getName);
+        }
+
+        @Override
+        public void close() throws IOException {
+            closed = true;
+            jarFile.close();
+        }
+    }
+}
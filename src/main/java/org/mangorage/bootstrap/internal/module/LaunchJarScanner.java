@@ -0,0 +1,142 @@
+package org.mangorage.bootstrap.internal.module;
+
+import java.io.IOException;
+import java.lang.module.FindException;
+import java.lang.module.ModuleFinder;
+import java.lang.module.ModuleReference;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinTask;
+import java.util.stream.Stream;
+
+/**
+ * Scans a launch directory once, reading each jar at most one time and in parallel.
+ *
+ * <p>The result doubles as the {@link ModuleFinder} for layer resolution and as the source of the
+ * root module names, so nothing else needs to look at the jars again. Jars that are unchanged
+ * according to the {@link ModuleIndex} are not opened at all. Exploded module directories, which
+ * have no size or timestamp to index by, are read through {@link ModuleFinder#of(Path...)} every time.
+ *
+ * <p>Like {@link ModuleFinder#of(Path...)}, a scan fails with a {@link FindException} if a jar or
+ * directory can't be read as a module, rather than leaving it out of the layer.
+ */
+public final class LaunchJarScanner {
+
+    private LaunchJarScanner() {
+    }
+
+    public static ScanResult scan(Path folder, ModuleIndex index) {
+        if (folder == null || !Files.isDirectory(folder)) {
+            throw new IllegalArgumentException("That's not a valid folder, genius: " + folder);
+        }
+
+        final List<Path> modules;
+        try (Stream<Path> files = Files.list(folder)) {
+            modules = files.filter(file -> isJar(file) || isExplodedModule(file))
+                    .sorted()
+                    .toList();
+        } catch (IOException e) {
+            throw new IllegalStateException("Failed to list launch directory: " + folder, e);
+        }
+
+        return scan(modules, index, folder.toString());
+    }
+
+    /**
+     * Scans the given jars and exploded module directories, for modules that don't share a directory.
+     *
+     * @param source describes where the jars came from, for error messages
+     * @throws FindException if any of them can't be read as a module, naming all that failed
+     */
+    public static ScanResult scan(List<Path> jars, ModuleIndex index, String source) {
+        final List<Scanned> scanned;
+        try (ForkJoinPool pool = new ForkJoinPool(Runtime.getRuntime().availableProcessors())) {
+            final List<ForkJoinTask<Scanned>> tasks = jars.stream()
+                    .map(jar -> pool.submit(() -> scanJar(jar, index)))
+                    .toList();
+
+            scanned = tasks.stream()
+                    .map(ForkJoinTask::join)
+                    .toList();
+        }
+
+        final List<Scanned> failed = scanned.stream().filter(result -> result.failure() != null).toList();
+        if (!failed.isEmpty()) {
+            final List<String> names = new ArrayList<>();
+            for (Scanned result : failed) {
+                names.add(result.path().getFileName() + " (" + result.failure().getMessage() + ")");
+            }
+
+            final FindException exception = new FindException("Couldn't read " + failed.size() + " module(s) in " + source
+                    + ": " + String.join(", ", names), failed.getFirst().failure());
+            failed.stream().skip(1).forEach(result -> exception.addSuppressed(result.failure()));
+            throw exception;
+        }
+
+        final Map<String, ModuleReference> modules = new HashMap<>();
+        for (Scanned result : scanned) {
+            final ModuleReference reference = result.reference();
+            final String name = reference.descriptor().name();
+            final ModuleReference previous = modules.putIfAbsent(name, reference);
+            if (previous != null) {
+                throw new FindException("Two versions of module " + name + " found in " + source
+                        + " (" + Path.of(previous.location().orElseThrow()).getFileName()
+                        + " and " + Path.of(reference.location().orElseThrow()).getFileName() + ")");
+            }
+        }
+
+        return new ScanResult(new ScannedModuleFinder(Map.copyOf(modules)), Set.copyOf(modules.keySet()));
+    }
+
+    private static Scanned scanJar(Path path, ModuleIndex index) {
+        try {
+            if (Files.isDirectory(path)) {
+                // ModuleFinder.of reads a directory holding a module-info.class as one exploded module
+                return new Scanned(path, ModuleFinder.of(path).findAll().iterator().next(), null);
+            }
+
+            final ModuleIndex.Entry entry = index.resolve(path);
+            return new Scanned(path, new JarModuleReference(entry.descriptor(), path.toAbsolutePath().normalize()), null);
+        } catch (IOException | RuntimeException e) {
+            return new Scanned(path, null, e);
+        }
+    }
+
+    private static boolean isJar(Path file) {
+        return file.getFileName().toString().endsWith(".jar") && Files.isRegularFile(file);
+    }
+
+    private static boolean isExplodedModule(Path file) {
+        return Files.isDirectory(file) && Files.isRegularFile(file.resolve("module-info.class"));
+    }
+
+    /**
+     * The outcome for one jar or directory: either its reference or why it couldn't be read.
+     */
+    private record Scanned(Path path, ModuleReference reference, Exception failure) {}
+
+    /**
+     * @param finder finds exactly the modules that were scanned
+     * @param rootModules the names of all scanned modules
+     */
+    public record ScanResult(ModuleFinder finder, Set<String> rootModules) {}
+
+    private record ScannedModuleFinder(Map<String, ModuleReference> modules) implements ModuleFinder {
+        @Override
+        public Optional<ModuleReference> find(String name) {
+            return Optional.ofNullable(modules.get(name));
+        }
+
+        @Override
+        public Set<ModuleReference> findAll() {
+            return Set.copyOf(modules.values());
+        }
+    }
+}
@@ -0,0 +1,41 @@
+package org.mangorage.bootstrap.internal.module;
+
+import java.lang.module.Configuration;
+import java.util.List;
+import java.util.Locale;
+
+/**
+ * How the launch layer maps its modules to class loaders, set with
+ * {@code -Dmangobot.bootstrap.layer.loaders=one|many} (default {@code one}).
+ */
+public enum LayerLoaderMode {
+    /**
+     * Every module is defined to a single loader, see {@link ModuleLayer#defineModulesWithOneLoader}.
+     */
+    ONE {
+        @Override
+        public ModuleLayer.Controller defineModules(Configuration configuration, List<ModuleLayer> parentLayers, ClassLoader parent) {
+            return ModuleLayer.defineModulesWithOneLoader(configuration, parentLayers, parent);
+        }
+    },
+    /**
+     * Each module gets a loader of its own, see {@link ModuleLayer#defineModulesWithManyLoaders}. The loaders are
+     * parallel capable and delegate to each other along the module graph, so modules loading classes at the same
+     * time don't share class loading locks or lookup tables.
+     * <p>
+     * Code that assumes all launch modules share one loader, for example by casting a class' loader or looking up
+     * classes of another module through its own loader, has to use the module's loader instead.
+     */
+    MANY {
+        @Override
+        public ModuleLayer.Controller defineModules(Configuration configuration, List<ModuleLayer> parentLayers, ClassLoader parent) {
+            return ModuleLayer.defineModulesWithManyLoaders(configuration, parentLayers, parent);
+        }
+    };
+
+    public abstract ModuleLayer.Controller defineModules(Configuration configuration, List<ModuleLayer> parentLayers, ClassLoader parent);
+
+    public static LayerLoaderMode fromProperty() {
+        return valueOf(System.getProperty("mangobot.bootstrap.layer.loaders", "one").toUpperCase(Locale.ROOT));
+    }
+}
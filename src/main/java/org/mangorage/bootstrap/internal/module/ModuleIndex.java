@@ -0,0 +1,321 @@
+package org.mangorage.bootstrap.internal.module;
+
+import org.mangorage.bootstrap.api.dependency.ModuleNameOrigin;
+import org.mangorage.bootstrap.api.logging.IDeferredMangoLogger;
+import org.mangorage.bootstrap.api.logging.ILoggerFactory;
+import org.mangorage.bootstrap.internal.util.Hashing;
+import org.mangorage.bootstrap.internal.zip.ZipIndex;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.lang.module.ModuleDescriptor;
+import java.nio.ByteBuffer;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.jar.Manifest;
+import java.util.zip.ZipException;
+
+/**
+ * Persistent index of the jars in the launch directory.
+ *
+ * <p>Entries are keyed by the jar's path and validated against its size and last-modified time.
+ * When either changed, the content hash decides whether the jar really changed, so only jars
+ * failing both checks are parsed again. The hash and the descriptor come from the same mapping
+ * of the jar, with packages taken from its central directory, so a changed jar is read once.
+ * A warm start over an unchanged launch directory never opens a jar; {@link #getStats()}
+ * reports how each lookup was served.
+ */
+public final class ModuleIndex {
+
+    private static final IDeferredMangoLogger LOGGER = ILoggerFactory.getDefault().getWrappedProvider("slf4j", ModuleIndex.class);
+    private static final int MAGIC = 0x4D424D49; // MBMI
+    private static final int FORMAT_VERSION = 2;
+
+    private final Path indexFile;
+    private final Map<String, Entry> entries = new ConcurrentHashMap<>();
+    private final Set<String> seen = ConcurrentHashMap.newKeySet();
+
+    private final AtomicInteger hits = new AtomicInteger();
+    private final AtomicInteger revalidated = new AtomicInteger();
+    private final AtomicInteger misses = new AtomicInteger();
+    private final AtomicInteger removed = new AtomicInteger();
+    private volatile boolean dirty;
+
+    private ModuleIndex(Path indexFile) {
+        this.indexFile = indexFile;
+    }
+
+    /**
+     * Loads the index from disk. A missing, outdated or corrupt index file yields an empty index.
+     */
+    public static ModuleIndex load(Path indexFile) {
+        final ModuleIndex index = new ModuleIndex(indexFile);
+        if (!Files.isRegularFile(indexFile)) return index;
+
+        try (DataInputStream in = new DataInputStream(new BufferedInputStream(Files.newInputStream(indexFile)))) {
+            if (in.readInt() != MAGIC || in.readInt() != FORMAT_VERSION) {
+                LOGGER.get().info("Ignoring module index with unknown format: " + indexFile);
+                return index;
+            }
+
+            final int count = in.readInt();
+            for (int i = 0; i < count; i++) {
+                final Entry entry = Entry.read(in);
+                index.entries.put(entry.path(), entry);
+            }
+        } catch (IOException | IllegalArgumentException e) {
+            LOGGER.get().warn("Discarding unreadable module index: " + indexFile, e);
+            index.entries.clear();
+        }
+
+        return index;
+    }
+
+    /**
+     * Looks up the entry for the given jar, parsing the jar only when it is not indexed or has changed.
+     *
+     * @return the entry for the jar
+     * @throws IOException if the jar can't be read
+     * @throws java.lang.module.InvalidModuleDescriptorException if the jar's module-info is invalid
+     * @throws IllegalArgumentException if no legal module name can be derived from the jar
+     */
+    public Entry resolve(Path jar) throws IOException {
+        final Path file = jar.toAbsolutePath().normalize();
+        final String key = file.toString();
+        seen.add(key);
+
+        final BasicFileAttributes attributes = Files.readAttributes(file, BasicFileAttributes.class);
+        final long size = attributes.size();
+        final long lastModified = attributes.lastModifiedTime().toMillis();
+
+        final Entry cached = entries.get(key);
+        if (cached != null && cached.size() == size && cached.lastModified() == lastModified) {
+            hits.incrementAndGet();
+            return cached;
+        }
+
+        // The jar is mapped once, for the hash and, if it really changed, for its descriptor
+        final ZipIndex index;
+        try {
+            index = ZipIndex.open(file);
+        } catch (ZipException e) {
+            misses.incrementAndGet();
+            if (entries.remove(key) != null) dirty = true;
+            throw e;
+        }
+
+        try (index) {
+            final String hash = Hashing.sha256(index);
+            if (cached != null && cached.hash().equals(hash)) {
+                revalidated.incrementAndGet();
+                return update(cached.withAttributes(size, lastModified));
+            }
+
+            misses.incrementAndGet();
+            try {
+                return update(describe(index, size, lastModified, hash));
+            } catch (IOException | RuntimeException e) {
+                if (entries.remove(key) != null) dirty = true;
+                throw e;
+            }
+        }
+    }
+
+    public Stats getStats() {
+        return new Stats(hits.get(), revalidated.get(), misses.get(), removed.get());
+    }
+
+    /**
+     * Writes the index back to disk, dropping entries for jars that were not looked up this run.
+     * Nothing is written when every lookup was a hit.
+     */
+    public void save() {
+        entries.keySet().removeIf(path -> {
+            if (seen.contains(path)) return false;
+            removed.incrementAndGet();
+            dirty = true;
+            return true;
+        });
+        if (!dirty) return;
+
+        try {
+            Files.createDirectories(indexFile.toAbsolutePath().getParent());
+            final Path temp = indexFile.resolveSibling(indexFile.getFileName() + ".tmp");
+
+            try (DataOutputStream out = new DataOutputStream(new BufferedOutputStream(Files.newOutputStream(temp)))) {
+                out.writeInt(MAGIC);
+                out.writeInt(FORMAT_VERSION);
+                out.writeInt(entries.size());
+                for (Entry entry : entries.values()) {
+                    entry.write(out);
+                }
+            }
+
+            Files.move(temp, indexFile, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+            dirty = false;
+        } catch (IOException e) {
+            LOGGER.get().warn("Failed to write module index: " + indexFile, e);
+        }
+    }
+
+    private Entry update(Entry entry) {
+        entries.put(entry.path(), entry);
+        dirty = true;
+        return entry;
+    }
+
+    private static Entry describe(ZipIndex index, long size, long lastModified, String hash) throws IOException {
+        final ModuleDescriptor descriptor;
+        final ModuleNameOrigin origin;
+        byte[] moduleInfo = null;
+
+        final ZipIndex.Entry moduleInfoEntry = index.getEntry("module-info.class");
+        if (moduleInfoEntry != null) {
+            moduleInfo = index.readBytes(moduleInfoEntry);
+            descriptor = JarModuleDescriptors.readExplicit(index, moduleInfo);
+            origin = moduleInfoEntry.name().equals("module-info.class") ? ModuleNameOrigin.MODULE_INFO : ModuleNameOrigin.MULTI_RELEASE;
+        } else {
+            final Manifest manifest = index.getManifest();
+            descriptor = JarModuleDescriptors.deriveAutomatic(index, manifest);
+            final boolean named = manifest != null && manifest.getMainAttributes().getValue("Automatic-Module-Name") != null;
+            origin = named ? ModuleNameOrigin.MANIFEST : ModuleNameOrigin.MODULE_FINDER;
+        }
+
+        final Map<String, List<String>> provides = new HashMap<>();
+        descriptor.provides().forEach(provide -> provides.put(provide.service(), List.copyOf(provide.providers())));
+
+        return new Entry(
+                index.getFile().toString(), size, lastModified, hash,
+                descriptor.name(), origin, Set.copyOf(descriptor.packages()),
+                moduleInfo,
+                descriptor.rawVersion().orElse(null),
+                descriptor.mainClass().orElse(null),
+                Map.copyOf(provides)
+        );
+    }
+
+    /**
+     * A single indexed jar.
+     *
+     * <p>Besides the name, origin and packages, an entry keeps what is needed to rebuild the jar's
+     * {@link ModuleDescriptor} without opening it: the raw {@code module-info.class} for explicit
+     * modules, or the version, main class and services for automatic ones.
+     */
+    public record Entry(String path, long size, long lastModified, String hash,
+                        String moduleName, ModuleNameOrigin origin, Set<String> packages,
+                        byte[] moduleInfo, String version, String mainClass, Map<String, List<String>> provides) {
+
+        Entry withAttributes(long size, long lastModified) {
+            return new Entry(path, size, lastModified, hash, moduleName, origin, packages, moduleInfo, version, mainClass, provides);
+        }
+
+        public ModuleDescriptor descriptor() {
+            if (moduleInfo != null) {
+                return ModuleDescriptor.read(ByteBuffer.wrap(moduleInfo), this::packages);
+            }
+
+            final ModuleDescriptor.Builder builder = ModuleDescriptor.newAutomaticModule(moduleName).packages(packages);
+            if (version != null) builder.version(version);
+            if (mainClass != null) builder.mainClass(mainClass);
+            provides.forEach(builder::provides);
+            return builder.build();
+        }
+
+        void write(DataOutputStream out) throws IOException {
+            out.writeUTF(path);
+            out.writeLong(size);
+            out.writeLong(lastModified);
+            out.writeUTF(hash);
+            out.writeUTF(moduleName);
+            out.writeUTF(origin.name());
+            writeStrings(out, packages);
+
+            out.writeInt(moduleInfo == null ? -1 : moduleInfo.length);
+            if (moduleInfo != null) out.write(moduleInfo);
+            writeOptional(out, version);
+            writeOptional(out, mainClass);
+
+            out.writeInt(provides.size());
+            for (Map.Entry<String, List<String>> provide : provides.entrySet()) {
+                out.writeUTF(provide.getKey());
+                writeStrings(out, provide.getValue());
+            }
+        }
+
+        static Entry read(DataInputStream in) throws IOException {
+            final String path = in.readUTF();
+            final long size = in.readLong();
+            final long lastModified = in.readLong();
+            final String hash = in.readUTF();
+            final String moduleName = in.readUTF();
+            final ModuleNameOrigin origin = ModuleNameOrigin.valueOf(in.readUTF());
+            final Set<String> packages = Set.copyOf(readStrings(in));
+
+            final int moduleInfoLength = in.readInt();
+            final byte[] moduleInfo = moduleInfoLength < 0 ? null : in.readNBytes(moduleInfoLength);
+            final String version = readOptional(in);
+            final String mainClass = readOptional(in);
+
+            final int provideCount = in.readInt();
+            final Map<String, List<String>> provides = new HashMap<>(provideCount);
+            for (int i = 0; i < provideCount; i++) {
+                provides.put(in.readUTF(), readStrings(in));
+            }
+
+            return new Entry(path, size, lastModified, hash, moduleName, origin, packages, moduleInfo, version, mainClass, Map.copyOf(provides));
+        }
+
+        private static void writeStrings(DataOutputStream out, Collection<String> values) throws IOException {
+            out.writeInt(values.size());
+            for (String value : values) {
+                out.writeUTF(value);
+            }
+        }
+
+        private static List<String> readStrings(DataInputStream in) throws IOException {
+            final int count = in.readInt();
+            final List<String> values = new ArrayList<>(count);
+            for (int i = 0; i < count; i++) {
+                values.add(in.readUTF());
+            }
+            return List.copyOf(values);
+        }
+
+        private static void writeOptional(DataOutputStream out, String value) throws IOException {
+            out.writeBoolean(value != null);
+            if (value != null) out.writeUTF(value);
+        }
+
+        private static String readOptional(DataInputStream in) throws IOException {
+            return in.readBoolean() ? in.readUTF() : null;
+        }
+    }
+
+    /**
+     * Lookup counters for one run.
+     *
+     * @param hits jars matched by size and last-modified time, never opened
+     * @param revalidated jars whose timestamps changed but whose content hash did not
+     * @param misses jars that had to be parsed
+     * @param removed entries dropped on save because their jar is gone
+     */
+    public record Stats(int hits, int revalidated, int misses, int removed) {
+        @Override
+        public String toString() {
+            return "hits=" + hits + ", revalidated=" + revalidated + ", misses=" + misses + ", removed=" + removed;
+        }
+    }
+}
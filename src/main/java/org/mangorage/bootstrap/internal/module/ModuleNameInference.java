@@ -0,0 +1,169 @@
+package org.mangorage.bootstrap.internal.module;
+
+import org.mangorage.bootstrap.api.dependency.ModuleNameOrigin;
+import org.mangorage.bootstrap.internal.zip.ZipIndex;
+
+import java.io.IOException;
+import java.lang.module.InvalidModuleDescriptorException;
+import java.lang.module.ModuleDescriptor;
+import java.nio.file.Path;
+import java.util.jar.Attributes;
+import java.util.jar.Manifest;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * Works out a jar's module name without building a {@link java.lang.module.ModuleFinder}.
+ * <p>
+ * The jar is read with positional reads through {@link ZipIndex#read(Path)}: the end of the file and the central
+ * directory, then at most {@code module-info.class} (the versioned copy for multi-release jars) and the manifest.
+ * Nothing else is opened or inflated, so classifying a jar costs a handful of small reads no matter how many
+ * entries it has.
+ * <p>
+ * Names match what the JDK would give the module. Explicit modules are named by their descriptor, automatic ones by
+ * {@code Automatic-Module-Name} and otherwise by their file name, derived the way
+ * {@link java.lang.module.ModuleFinder#of(Path...)} documents it. Only when none of those yields a legal name do
+ * {@code Bundle-SymbolicName} and finally a guess from the file name come into play; the JDK would refuse such jars.
+ */
+public final class ModuleNameInference {
+    private static final String MODULE_INFO = "module-info.class";
+    private static final Attributes.Name AUTOMATIC_MODULE_NAME = new Attributes.Name("Automatic-Module-Name");
+    private static final Attributes.Name BUNDLE_SYMBOLIC_NAME = new Attributes.Name("Bundle-SymbolicName");
+
+    // Same patterns the JDK uses when deriving automatic module names
+    private static final Pattern DASH_VERSION = Pattern.compile("-(\\d+(\\.|$))");
+    private static final Pattern NON_ALPHANUM = Pattern.compile("[^A-Za-z0-9]");
+    private static final Pattern REPEATING_DOTS = Pattern.compile("(\\.)(\\1)+");
+    private static final Pattern LEADING_DOTS = Pattern.compile("^\\.");
+    private static final Pattern TRAILING_DOTS = Pattern.compile("\\.$");
+
+    private ModuleNameInference() {}
+
+    /**
+     * @return the inferred name, or {@code null} if no name could be made up at all
+     * @throws IOException if the jar can't be read, or its module-info is invalid
+     */
+    public static InferredName infer(Path jar) throws IOException {
+        try (ZipIndex index = ZipIndex.read(jar)) {
+            return infer(index);
+        }
+    }
+
+    /**
+     * Same as {@link #infer(Path)}, for a jar that is already indexed.
+     */
+    public static InferredName infer(ZipIndex index) throws IOException {
+        final ZipIndex.Entry moduleInfo = index.getEntry(MODULE_INFO);
+        if (moduleInfo != null) {
+            final String name;
+            try {
+                name = ModuleDescriptor.read(index.read(moduleInfo)).name();
+            } catch (InvalidModuleDescriptorException e) {
+                throw new IOException("Invalid " + moduleInfo.name() + " in " + index.getFile() + ": " + e.getMessage(), e);
+            }
+
+            final boolean versioned = !moduleInfo.name().equals(MODULE_INFO);
+            return new InferredName(name, versioned ? ModuleNameOrigin.MULTI_RELEASE : ModuleNameOrigin.MODULE_INFO);
+        }
+
+        final Manifest manifest = index.getManifest();
+        final Attributes attributes = manifest == null ? null : manifest.getMainAttributes();
+
+        final String automaticName = attributes == null ? null : attributes.getValue(AUTOMATIC_MODULE_NAME);
+        if (automaticName != null && isModuleName(automaticName.trim())) {
+            return new InferredName(automaticName.trim(), ModuleNameOrigin.MANIFEST);
+        }
+
+        final String fileName = index.getFile().getFileName().toString();
+        final String derived = deriveName(fileName);
+        if (isModuleName(derived)) {
+            return new InferredName(derived, ModuleNameOrigin.MODULE_FINDER);
+        }
+
+        final String symbolicName = attributes == null ? null : attributes.getValue(BUNDLE_SYMBOLIC_NAME);
+        if (symbolicName != null) {
+            // Drop directives such as ";singleton:=true"
+            final int directives = symbolicName.indexOf(';');
+            final String name = (directives < 0 ? symbolicName : symbolicName.substring(0, directives)).trim();
+            if (isModuleName(name)) return new InferredName(name, ModuleNameOrigin.MANIFEST_BUNDLE_SYMBOLIC_NAME);
+        }
+
+        final String guessed = guessName(derived);
+        return guessed == null ? null : new InferredName(guessed, ModuleNameOrigin.GUESSED);
+    }
+
+    /**
+     * Derives an automatic module name from a jar's file name: the {@code .jar} suffix and anything from the first
+     * {@code -<digit>} on are dropped, every non-alphanumeric character becomes a dot, and repeated, leading and
+     * trailing dots are removed. The result may still not be a legal module name.
+     */
+    public static String deriveName(String fileName) {
+        String name = fileName.endsWith(".jar") ? fileName.substring(0, fileName.length() - 4) : fileName;
+
+        final Matcher version = DASH_VERSION.matcher(name);
+        if (version.find()) name = name.substring(0, version.start());
+
+        name = NON_ALPHANUM.matcher(name).replaceAll(".");
+        name = REPEATING_DOTS.matcher(name).replaceAll(".");
+        if (!name.isEmpty() && name.charAt(0) == '.') name = LEADING_DOTS.matcher(name).replaceAll("");
+        final int length = name.length();
+        if (length > 0 && name.charAt(length - 1) == '.') name = TRAILING_DOTS.matcher(name).replaceAll("");
+
+        return name;
+    }
+
+    /**
+     * Derives an automatic module version from a jar's file name: whatever follows the first {@code -<digit>}, if
+     * {@link ModuleDescriptor.Version#parse(String)} accepts it.
+     *
+     * @return the raw version, or {@code null} if the file name has none
+     */
+    public static String deriveVersion(String fileName) {
+        final String name = fileName.endsWith(".jar") ? fileName.substring(0, fileName.length() - 4) : fileName;
+
+        final Matcher version = DASH_VERSION.matcher(name);
+        if (!version.find()) return null;
+
+        final String tail = name.substring(version.start() + 1);
+        try {
+            ModuleDescriptor.Version.parse(tail);
+            return tail;
+        } catch (IllegalArgumentException e) {
+            return null;
+        }
+    }
+
+    private static String guessName(String derived) {
+        if (derived.isEmpty()) return null;
+
+        final StringBuilder guess = new StringBuilder(derived.length() + 8);
+        for (String part : derived.split("\\.")) {
+            if (guess.length() > 0) guess.append('.');
+            // What's left of a derived name is only illegal where a part starts with a digit or is a keyword
+            if (!isModuleName(part)) guess.append('_');
+            guess.append(part);
+        }
+
+        final String name = guess.toString();
+        return isModuleName(name) ? name : null;
+    }
+
+    /**
+     * Also tells legal package and class names apart, as the JDK checks those by the same rules.
+     */
+    static boolean isModuleName(String name) {
+        if (name.isEmpty()) return false;
+        try {
+            ModuleDescriptor.newModule(name);
+            return true;
+        } catch (IllegalArgumentException e) {
+            return false;
+        }
+    }
+
+    /**
+     * @param name the module name
+     * @param origin where the name came from
+     */
+    public record InferredName(String name, ModuleNameOrigin origin) {}
+}
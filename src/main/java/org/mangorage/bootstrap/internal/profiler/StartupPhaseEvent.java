@@ -0,0 +1,32 @@
+package org.mangorage.bootstrap.internal.profiler;
+
+import jdk.jfr.Category;
+import jdk.jfr.DataAmount;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+import jdk.jfr.Timespan;
+
+@Name("org.mangorage.bootstrap.StartupPhase")
+@Label("Startup Phase")
+@Category({"MangoBot", "Bootstrap"})
+@Description("A single phase of the bootstrap startup sequence")
+@StackTrace(false)
+final class StartupPhaseEvent extends Event {
+    @Label("Phase")
+    String phase;
+
+    @Label("CPU Time")
+    @Timespan(Timespan.NANOSECONDS)
+    long cpuTime;
+
+    @Label("Allocated")
+    @DataAmount(DataAmount.BYTES)
+    long allocated;
+
+    @Label("Classes Loaded")
+    @Description("Classes loaded by the whole JVM while the phase ran")
+    long classesLoaded;
+}
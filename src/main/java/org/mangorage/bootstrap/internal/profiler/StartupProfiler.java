@@ -0,0 +1,184 @@
+package org.mangorage.bootstrap.internal.profiler;
+
+import com.google.gson.stream.JsonWriter;
+import org.mangorage.bootstrap.api.logging.IDeferredMangoLogger;
+import org.mangorage.bootstrap.api.logging.ILoggerFactory;
+
+import java.io.IOException;
+import java.io.Writer;
+import java.lang.management.ClassLoadingMXBean;
+import java.lang.management.ManagementFactory;
+import java.lang.management.ThreadMXBean;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+
+/**
+ * Opt-in profiler for the phases of {@code Bootstrap.main}.
+ *
+ * <p>Enabled with {@code -Dmangobot.bootstrap.profile=true}. Each phase records wall time, CPU time
+ * and allocated bytes of the thread running it, plus the JVM-wide number of classes loaded meanwhile.
+ * Phases are committed as {@code org.mangorage.bootstrap.StartupPhase} JFR events and summarised in a
+ * JSON report, written to {@code -Dmangobot.bootstrap.profile.report} if set.
+ *
+ * <p>When disabled, {@link #phase(String)} hands out a shared no-op phase and nothing is measured.
+ */
+public final class StartupProfiler {
+    public static final String PROFILE_PROPERTY = "mangobot.bootstrap.profile";
+    public static final String REPORT_PROPERTY = "mangobot.bootstrap.profile.report";
+
+    public static final StartupProfiler INSTANCE = new StartupProfiler(Boolean.getBoolean(PROFILE_PROPERTY));
+
+    private static final IDeferredMangoLogger LOGGER = ILoggerFactory.getDefault().getWrappedProvider("slf4j", StartupProfiler.class);
+    private static final Phase NO_OP = () -> {};
+
+    private final boolean enabled;
+    private final long startNanos = System.nanoTime();
+    private final Queue<PhaseRecord> records = new ConcurrentLinkedQueue<>();
+
+    private final ThreadMXBean threads;
+    private final com.sun.management.ThreadMXBean allocations;
+    private final ClassLoadingMXBean classLoading;
+
+    private StartupProfiler(boolean enabled) {
+        this.enabled = enabled;
+
+        if (enabled) {
+            this.threads = ManagementFactory.getThreadMXBean();
+            this.allocations = threads instanceof com.sun.management.ThreadMXBean sunThreads && sunThreads.isThreadAllocatedMemorySupported()
+                    ? sunThreads
+                    : null;
+            this.classLoading = ManagementFactory.getClassLoadingMXBean();
+        } else {
+            this.threads = null;
+            this.allocations = null;
+            this.classLoading = null;
+        }
+    }
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    /**
+     * Starts measuring a phase on the current thread. The phase ends when the returned handle is closed.
+     */
+    public Phase phase(String name) {
+        return enabled ? new ActivePhase(name) : NO_OP;
+    }
+
+    public List<PhaseRecord> getRecords() {
+        return List.copyOf(records);
+    }
+
+    /**
+     * Writes the JSON report, to the path given by {@link #REPORT_PROPERTY} or else to {@code defaultReport}.
+     * Does nothing when profiling is disabled.
+     */
+    public void writeReport(Path defaultReport) {
+        if (!enabled) return;
+
+        final String configured = System.getProperty(REPORT_PROPERTY);
+        final Path report = configured != null ? Path.of(configured) : defaultReport;
+        final List<PhaseRecord> phases = new ArrayList<>(records);
+
+        try {
+            final Path parent = report.toAbsolutePath().getParent();
+            if (parent != null) Files.createDirectories(parent);
+
+            try (Writer writer = Files.newBufferedWriter(report); JsonWriter json = new JsonWriter(writer)) {
+                json.setIndent("  ");
+                json.beginObject();
+                json.name("jvmStartTime").value(ManagementFactory.getRuntimeMXBean().getStartTime());
+                json.name("jvmUptimeMillis").value(ManagementFactory.getRuntimeMXBean().getUptime());
+                json.name("totalWallNanos").value(System.nanoTime() - startNanos);
+                json.name("phases").beginArray();
+                for (PhaseRecord phase : phases) {
+                    json.beginObject();
+                    json.name("name").value(phase.name());
+                    json.name("thread").value(phase.thread());
+                    json.name("startOffsetNanos").value(phase.startOffsetNanos());
+                    json.name("wallNanos").value(phase.wallNanos());
+                    json.name("cpuNanos").value(phase.cpuNanos());
+                    json.name("allocatedBytes").value(phase.allocatedBytes());
+                    json.name("classesLoaded").value(phase.classesLoaded());
+                    json.endObject();
+                }
+                json.endArray();
+                json.endObject();
+            }
+
+            LOGGER.get().info("Wrote startup profile with " + phases.size() + " phases to " + report);
+        } catch (IOException e) {
+            LOGGER.get().warn("Failed to write startup profile to " + report, e);
+        }
+    }
+
+    private long currentCpuNanos() {
+        return threads.isCurrentThreadCpuTimeSupported() ? threads.getCurrentThreadCpuTime() : -1;
+    }
+
+    private long currentAllocatedBytes() {
+        return allocations != null ? allocations.getCurrentThreadAllocatedBytes() : -1;
+    }
+
+    private static long delta(long start, long end) {
+        return start < 0 || end < 0 ? -1 : end - start;
+    }
+
+    /**
+     * A running phase. Closing it records the phase; it must be closed on the thread that opened it.
+     */
+    @FunctionalInterface
+    public interface Phase extends AutoCloseable {
+        @Override
+        void close();
+    }
+
+    /**
+     * A finished phase. CPU time and allocated bytes are {@code -1} when the JVM cannot measure them,
+     * which is the case for phases run on virtual threads.
+     */
+    public record PhaseRecord(String name, String thread, long startOffsetNanos, long wallNanos,
+                              long cpuNanos, long allocatedBytes, long classesLoaded) {}
+
+    private final class ActivePhase implements Phase {
+        private final String name;
+        private final StartupPhaseEvent event = new StartupPhaseEvent();
+        private final long wallStart;
+        private final long cpuStart;
+        private final long allocatedStart;
+        private final long classesStart;
+
+        ActivePhase(String name) {
+            this.name = name;
+            this.classesStart = classLoading.getTotalLoadedClassCount();
+            this.allocatedStart = currentAllocatedBytes();
+            this.cpuStart = currentCpuNanos();
+            this.wallStart = System.nanoTime();
+            event.begin();
+        }
+
+        @Override
+        public void close() {
+            event.end();
+            final long wall = System.nanoTime() - wallStart;
+            final long cpu = delta(cpuStart, currentCpuNanos());
+            final long allocated = delta(allocatedStart, currentAllocatedBytes());
+            final long classes = classLoading.getTotalLoadedClassCount() - classesStart;
+
+            records.add(new PhaseRecord(name, Thread.currentThread().getName(), wallStart - startNanos, wall, cpu, allocated, classes));
+
+            if (event.shouldCommit()) {
+                event.phase = name;
+                event.cpuTime = cpu;
+                event.allocated = allocated;
+                event.classesLoaded = classes;
+                event.commit();
+            }
+        }
+    }
+}
@@ -1,8 +1,10 @@
 package org.mangorage.bootstrap.internal.util;
 
+import org.mangorage.bootstrap.internal.module.LaunchJarScanner;
+import org.mangorage.bootstrap.internal.module.ModuleIndex;
+import org.mangorage.bootstrap.internal.module.ModuleNameInference;
+
 import java.io.File;
-import java.lang.module.ModuleFinder;
-import java.lang.module.ModuleReference;
 import java.lang.reflect.Method;
 import java.nio.file.Path;
 import java.util.HashSet;
@@ -28,19 +30,24 @@ public final class Util {
         return moduleNames;
     }
 
+    /**
+     * Same as {@link #getModuleNames(Path)}, but scans in parallel and serves unchanged jars from the given index.
+     * Exploded module directories are included, and a jar that can't be read fails the scan instead of being skipped.
+     *
+     * @throws java.lang.module.FindException if a jar or exploded module can't be read
+     */
+    public static Set<String> getModuleNames(Path folder, ModuleIndex index) {
+        return LaunchJarScanner.scan(folder, index).rootModules();
+    }
+
     public static String getModuleName(File jarFile) {
         if (jarFile == null || !jarFile.isFile() || !jarFile.getName().endsWith(".jar")) {
             throw new IllegalArgumentException("Not a valid jar file, genius: " + jarFile);
         }
 
         try {
-            ModuleFinder finder = ModuleFinder.of(jarFile.toPath());
-            Set<ModuleReference> modules = finder.findAll();
-
-            for (ModuleReference moduleRef : modules) {
-                var descriptor = moduleRef.descriptor();
-                return descriptor.name(); // Return the first (and only) module name
-            }
+            final var inferred = ModuleNameInference.infer(jarFile.toPath());
+            if (inferred != null) return inferred.name();
         } catch (Exception e) {
             System.err.println("Couldn't process " + jarFile.getName() + ": " + e.getMessage());
         }
@@ -0,0 +1,383 @@
+package org.mangorage.bootstrap.internal.zip;
+
+import java.io.ByteArrayInputStream;
+import java.io.Closeable;
+import java.io.EOFException;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.security.MessageDigest;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Set;
+import java.util.jar.Attributes;
+import java.util.jar.Manifest;
+import java.util.zip.DataFormatException;
+import java.util.zip.Inflater;
+import java.util.zip.ZipException;
+
+/**
+ * Read-only view of a zip or jar, with its central directory parsed once up front.
+ * <p>
+ * {@link #open(Path)} memory-maps the file: stored entries are served as read-only slices of the mapping, so reading
+ * them copies nothing, and deflated entries are inflated straight from the mapping into a heap buffer of the exact size.
+ * The mapping stays alive until the index is garbage collected, which on Windows keeps the file locked.
+ * <p>
+ * {@link #read(Path)} instead uses positional reads on a channel: the tail of the file, the central directory, and
+ * then only the entries asked for. That suits looking at a few entries of many jars.
+ * <p>
+ * For multi-release jars, {@link #getEntry(String)} resolves the versioned entry for the running JVM, the same way
+ * {@link java.util.jar.JarFile} does.
+ */
+public final class ZipIndex implements Closeable {
+
+    private static final int LOCAL_HEADER = 0x04034b50;
+    private static final int CENTRAL_HEADER = 0x02014b50;
+    private static final int END_HEADER = 0x06054b50;
+    private static final int ZIP64_END_LOCATOR = 0x07064b50;
+    private static final int ZIP64_END_HEADER = 0x06064b50;
+    private static final int END_HEADER_SIZE = 22;
+    private static final int MAX_COMMENT = 0xFFFF;
+    private static final int DIGEST_CHUNK = 64 * 1024;
+
+    private static final int STORED = 0;
+    private static final int DEFLATED = 8;
+
+    private static final String VERSIONS_DIR = "META-INF/versions/";
+    public static final String MANIFEST_NAME = "META-INF/MANIFEST.MF";
+
+    private final Path file;
+    private final Source source;
+    private final Map<String, Entry> entries;
+    private final Map<String, Entry> versioned;
+    private final boolean multiRelease;
+
+    private ZipIndex(Path file, Source source) throws IOException {
+        this.file = file;
+        this.source = source;
+
+        try {
+            this.entries = readCentralDirectory(source);
+        } catch (IndexOutOfBoundsException | IllegalArgumentException e) {
+            throw new ZipException("Malformed zip file " + file + ": " + e.getMessage());
+        }
+        // Only jars with versioned entries are worth reading the manifest for here
+        this.multiRelease = hasVersionedEntries(entries) && readMultiRelease();
+        this.versioned = multiRelease ? resolveVersions(entries) : entries;
+    }
+
+    /**
+     * Maps the file and parses its central directory.
+     *
+     * @throws ZipException if the file isn't a zip file this index can read
+     */
+    public static ZipIndex open(Path file) throws IOException {
+        final ByteBuffer mapping;
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            final long size = channel.size();
+            if (size > Integer.MAX_VALUE) throw new ZipException("Too large to map: " + file);
+            mapping = channel.map(FileChannel.MapMode.READ_ONLY, 0, size);
+        }
+
+        return new ZipIndex(file, new MappedSource(mapping));
+    }
+
+    /**
+     * Parses the central directory with positional reads, leaving the channel open for reading entries
+     * until the index is closed.
+     *
+     * @throws ZipException if the file isn't a zip file this index can read
+     */
+    public static ZipIndex read(Path file) throws IOException {
+        final FileChannel channel = FileChannel.open(file, StandardOpenOption.READ);
+        try {
+            return new ZipIndex(file, new ChannelSource(channel));
+        } catch (IOException | RuntimeException e) {
+            channel.close();
+            throw e;
+        }
+    }
+
+    public Path getFile() {
+        return file;
+    }
+
+    /**
+     * @return the entry as stored, ignoring multi-release versioning
+     */
+    public Entry getRawEntry(String name) {
+        return entries.get(name);
+    }
+
+    /**
+     * @return the entry for the running JVM, or {@code null}
+     */
+    public Entry getEntry(String name) {
+        return versioned.get(name);
+    }
+
+    /**
+     * Entry names as seen by the running JVM: versioned entries appear under their unversioned name.
+     */
+    public Set<String> getNames() {
+        return Collections.unmodifiableSet(versioned.keySet());
+    }
+
+    /**
+     * @return the entry's data, for mapped indexes a read-only view of the mapping if the entry is stored
+     */
+    public ByteBuffer read(Entry entry) throws IOException {
+        final long dataStart = dataStart(entry);
+
+        return switch (entry.method()) {
+            case STORED -> source.read(dataStart, checkedSize(entry, entry.size())).asReadOnlyBuffer();
+            case DEFLATED -> inflate(entry, source.read(dataStart, checkedSize(entry, entry.compressedSize())));
+            default -> throw new ZipException("Unsupported compression method " + entry.method() + " for " + entry.name() + " in " + file);
+        };
+    }
+
+    /**
+     * Feeds the whole file to the digest, for mapped indexes straight from the mapping.
+     */
+    public void digest(MessageDigest digest) throws IOException {
+        final long size = source.size();
+        for (long position = 0; position < size; position += DIGEST_CHUNK) {
+            digest.update(source.read(position, (int) Math.min(DIGEST_CHUNK, size - position)));
+        }
+    }
+
+    @Override
+    public void close() throws IOException {
+        source.close();
+    }
+
+    private int checkedSize(Entry entry, long size) throws ZipException {
+        if (size > Integer.MAX_VALUE) throw new ZipException("Entry too large: " + entry.name() + " in " + file);
+        return (int) size;
+    }
+
+    public byte[] readBytes(Entry entry) throws IOException {
+        final ByteBuffer data = read(entry);
+        final byte[] bytes = new byte[data.remaining()];
+        data.get(bytes);
+        return bytes;
+    }
+
+    public Manifest getManifest() throws IOException {
+        final Entry entry = entries.get(MANIFEST_NAME);
+        return entry == null ? null : new Manifest(new ByteArrayInputStream(readBytes(entry)));
+    }
+
+    /**
+     * @return whether the manifest declares a multi-release jar that actually has versioned entries
+     */
+    public boolean isMultiRelease() {
+        return multiRelease;
+    }
+
+    private boolean readMultiRelease() throws IOException {
+        final Manifest manifest = getManifest();
+        return manifest != null && "true".equalsIgnoreCase(manifest.getMainAttributes().getValue(Attributes.Name.MULTI_RELEASE));
+    }
+
+    private long dataStart(Entry entry) throws IOException {
+        final ByteBuffer header = source.read(entry.localHeaderOffset(), 30);
+        if (header.getInt(0) != LOCAL_HEADER) throw new ZipException("Bad local header for " + entry.name() + " in " + file);
+        return entry.localHeaderOffset() + 30 + Short.toUnsignedInt(header.getShort(26)) + Short.toUnsignedInt(header.getShort(28));
+    }
+
+    private ByteBuffer inflate(Entry entry, ByteBuffer compressed) throws ZipException {
+        final Inflater inflater = new Inflater(true);
+        try {
+            inflater.setInput(compressed);
+            final ByteBuffer output = ByteBuffer.allocate(checkedSize(entry, entry.size()));
+            while (output.hasRemaining() && !inflater.finished()) {
+                if (inflater.inflate(output) == 0 && (inflater.needsInput() || inflater.needsDictionary())) break;
+            }
+            if (output.hasRemaining()) throw new ZipException("Truncated entry " + entry.name() + " in " + file);
+            return output.flip();
+        } catch (DataFormatException e) {
+            throw new ZipException("Corrupt entry " + entry.name() + " in " + file + ": " + e.getMessage());
+        } finally {
+            inflater.end();
+        }
+    }
+
+    private static Map<String, Entry> readCentralDirectory(Source source) throws IOException {
+        final long size = source.size();
+        final long tailStart = Math.max(0, size - END_HEADER_SIZE - MAX_COMMENT);
+        final ByteBuffer tail = source.read(tailStart, (int) (size - tailStart));
+        final int end = findEndHeader(tail);
+
+        long count = Short.toUnsignedInt(tail.getShort(end + 10));
+        long directorySize = Integer.toUnsignedLong(tail.getInt(end + 12));
+        long offset = Integer.toUnsignedLong(tail.getInt(end + 16));
+
+        if (count == 0xFFFF || directorySize == 0xFFFFFFFFL || offset == 0xFFFFFFFFL) {
+            final long locator = tailStart + end - 20;
+            if (locator < 0) throw new ZipException("Missing zip64 end locator");
+            final ByteBuffer locatorRecord = source.read(locator, 20);
+            if (locatorRecord.getInt(0) != ZIP64_END_LOCATOR) throw new ZipException("Missing zip64 end locator");
+
+            final ByteBuffer zip64End = source.read(locatorRecord.getLong(8), 56);
+            if (zip64End.getInt(0) != ZIP64_END_HEADER) throw new ZipException("Bad zip64 end header");
+            count = zip64End.getLong(32);
+            directorySize = zip64End.getLong(40);
+            offset = zip64End.getLong(48);
+        }
+
+        if (directorySize > Integer.MAX_VALUE) throw new ZipException("Central directory too large");
+        final ByteBuffer directory = source.read(offset, (int) directorySize);
+
+        final Map<String, Entry> entries = new HashMap<>((int) Math.min(count, 1 << 20) * 4 / 3 + 1);
+        int position = 0;
+        for (long i = 0; i < count; i++) {
+            if (directory.getInt(position) != CENTRAL_HEADER) throw new ZipException("Bad central directory header at " + (offset + position));
+
+            final int method = Short.toUnsignedInt(directory.getShort(position + 10));
+            long compressedSize = Integer.toUnsignedLong(directory.getInt(position + 20));
+            long entrySize = Integer.toUnsignedLong(directory.getInt(position + 24));
+            final int nameLength = Short.toUnsignedInt(directory.getShort(position + 28));
+            final int extraLength = Short.toUnsignedInt(directory.getShort(position + 30));
+            final int commentLength = Short.toUnsignedInt(directory.getShort(position + 32));
+            long localHeaderOffset = Integer.toUnsignedLong(directory.getInt(position + 42));
+
+            final byte[] nameBytes = new byte[nameLength];
+            directory.get(position + 46, nameBytes);
+            final String name = new String(nameBytes, StandardCharsets.UTF_8);
+
+            if (entrySize == 0xFFFFFFFFL || compressedSize == 0xFFFFFFFFL || localHeaderOffset == 0xFFFFFFFFL) {
+                // Zip64 extended information, each value present only if its 32 bit field overflowed
+                int extra = position + 46 + nameLength;
+                final int extraEnd = extra + extraLength;
+                while (extra + 4 <= extraEnd) {
+                    final int tag = Short.toUnsignedInt(directory.getShort(extra));
+                    final int length = Short.toUnsignedInt(directory.getShort(extra + 2));
+                    if (tag == 0x0001) {
+                        int field = extra + 4;
+                        if (entrySize == 0xFFFFFFFFL) { entrySize = directory.getLong(field); field += 8; }
+                        if (compressedSize == 0xFFFFFFFFL) { compressedSize = directory.getLong(field); field += 8; }
+                        if (localHeaderOffset == 0xFFFFFFFFL) localHeaderOffset = directory.getLong(field);
+                        break;
+                    }
+                    extra += 4 + length;
+                }
+            }
+
+            entries.put(name, new Entry(name, method, compressedSize, entrySize, localHeaderOffset));
+            position += 46 + nameLength + extraLength + commentLength;
+        }
+
+        return entries;
+    }
+
+    private static int findEndHeader(ByteBuffer tail) throws ZipException {
+        for (int position = tail.limit() - END_HEADER_SIZE; position >= 0; position--) {
+            if (tail.getInt(position) == END_HEADER) return position;
+        }
+        throw new ZipException("No end of central directory found");
+    }
+
+    private static boolean hasVersionedEntries(Map<String, Entry> entries) {
+        for (String name : entries.keySet()) {
+            if (name.startsWith(VERSIONS_DIR)) return true;
+        }
+        return false;
+    }
+
+    private static Map<String, Entry> resolveVersions(Map<String, Entry> entries) {
+        final int runtime = Runtime.version().feature();
+        final Map<String, Entry> resolved = new HashMap<>(entries);
+        resolved.keySet().removeIf(name -> name.startsWith(VERSIONS_DIR));
+        final Map<String, Integer> versions = new HashMap<>();
+
+        for (Entry entry : entries.values()) {
+            final String name = entry.name();
+            if (!name.startsWith(VERSIONS_DIR)) continue;
+
+            final int slash = name.indexOf('/', VERSIONS_DIR.length());
+            if (slash < 0) continue;
+
+            final int version;
+            try {
+                version = Integer.parseInt(name, VERSIONS_DIR.length(), slash, 10);
+            } catch (NumberFormatException e) {
+                continue;
+            }
+            if (version < 9 || version > runtime) continue;
+
+            final String baseName = name.substring(slash + 1);
+            if (baseName.isEmpty()) continue;
+
+            final Integer existing = versions.get(baseName);
+            if (existing == null || existing < version) {
+                versions.put(baseName, version);
+                resolved.put(baseName, entry);
+            }
+        }
+
+        return resolved;
+    }
+
+    /**
+     * Where the zip's bytes come from. Buffers are little-endian and positioned at zero.
+     */
+    private interface Source extends Closeable {
+        long size() throws IOException;
+
+        ByteBuffer read(long position, int length) throws IOException;
+
+        @Override
+        default void close() throws IOException {
+        }
+    }
+
+    private record MappedSource(ByteBuffer mapping) implements Source {
+        @Override
+        public long size() {
+            return mapping.capacity();
+        }
+
+        @Override
+        public ByteBuffer read(long position, int length) {
+            return mapping.slice((int) position, length).order(ByteOrder.LITTLE_ENDIAN);
+        }
+    }
+
+    private record ChannelSource(FileChannel channel) implements Source {
+        @Override
+        public long size() throws IOException {
+            return channel.size();
+        }
+
+        @Override
+        public ByteBuffer read(long position, int length) throws IOException {
+            final ByteBuffer buffer = ByteBuffer.allocate(length).order(ByteOrder.LITTLE_ENDIAN);
+            while (buffer.hasRemaining()) {
+                if (channel.read(buffer, position + buffer.position()) < 0) throw new EOFException("Unexpected end of zip file");
+            }
+            return buffer.flip();
+        }
+
+        @Override
+        public void close() throws IOException {
+            channel.close();
+        }
+    }
+
+    /**
+     * A central directory record.
+     *
+     * @param name the name as stored, for versioned entries including the {@code META-INF/versions/N/} prefix
+     */
+    public record Entry(String name, int method, long compressedSize, long size, long localHeaderOffset) {
+        public boolean isDirectory() {
+            return name.endsWith("/");
+        }
+    }
+}